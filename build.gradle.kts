@@ -14,6 +14,18 @@ java {
     targetCompatibility = JavaVersion.VERSION_21
 }
 
+// JMH benchmarks of the compute kernels, which run without mpirun
+sourceSets {
+    create("jmh") {
+        compileClasspath += sourceSets.main.get().output
+        runtimeClasspath += sourceSets.main.get().output
+    }
+}
+
+val jmhImplementation: Configuration by configurations.getting {
+    extendsFrom(configurations.implementation.get())
+}
+
 repositories {
     mavenCentral()
 }
@@ -24,14 +36,57 @@ dependencies {
 
     implementation("io.github.java-romp:jromp:1.1.1")
     implementation(files("$mpiLibPath/mpi.jar"))
+
+    jmhImplementation("org.openjdk.jmh:jmh-core:1.37")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:1.37")
+}
+
+// The SIMD kernels use the incubating Vector API
+val vectorModuleArgs = listOf("--add-modules", "jdk.incubator.vector")
+
+tasks.compileJava {
+    options.forkOptions.executable = "$mpiBinPath/mpijavac.pl"
+    options.compilerArgs.addAll(vectorModuleArgs)
+}
+
+tasks.named<JavaCompile>("compileJmhJava") {
+    options.compilerArgs.addAll(vectorModuleArgs)
+}
+
+tasks.compileTestJava {
+    options.compilerArgs.addAll(vectorModuleArgs)
 }
 
 tasks.test {
     useJUnitPlatform()
+    jvmArgs(vectorModuleArgs)
+
+    // The tests do not call MPI, but the classes under test link against the bindings
+    environment("LD_LIBRARY_PATH", mpiLibPath)
 }
 
-tasks.compileJava {
-    options.forkOptions.executable = "$mpiBinPath/mpijavac.pl"
+// Options forwarded to the program, e.g. -Pargs="--kernel=blocked --verify"
+fun programArgs(): List<String> =
+    (project.findProperty("args") as String?)
+        ?.split(" ")
+        ?.filter { it.isNotBlank() }
+        ?: emptyList()
+
+fun mpiRunCommand(name: String, processes: Int, debug: Boolean, programArgs: List<String>): List<String> {
+    val classpath = sourceSets.main.get().runtimeClasspath.asPath
+    val mpiRunParameters = mutableListOf("--bind-to", "none")
+
+    if (debug) {
+        mpiRunParameters.add("--report-bindings")
+    }
+
+    return listOf(
+        "$mpiBinPath/mpirun",
+        *mpiRunParameters.toTypedArray(),
+        "-np", "$processes",
+        "java", *vectorModuleArgs.toTypedArray(), "-cp", classpath, "jromp.mpi.examples.$name",
+        *programArgs.toTypedArray()
+    )
 }
 
 fun createTaskWithNumProcesses(name: String, processes: Int, debug: Boolean) {
@@ -41,20 +96,7 @@ fun createTaskWithNumProcesses(name: String, processes: Int, debug: Boolean) {
         group = "application"
         description = "Run $name with mpirun"
 
-        val classpath = sourceSets.main.get().runtimeClasspath.asPath
-        val mpiRunParameters = mutableListOf("--bind-to", "none")
-
-        if (debug) {
-            mpiRunParameters.add("--report-bindings")
-        }
-
-        commandLine =
-            listOf(
-                "$mpiBinPath/mpirun",
-                *mpiRunParameters.toTypedArray(),
-                "-np", "$processes",
-                "java", "-cp", classpath, "jromp.mpi.examples.$name"
-            )
+        commandLine = mpiRunCommand(name, processes, debug, programArgs())
 
         environment("LD_LIBRARY_PATH", mpiLibPath)
 
@@ -74,7 +116,97 @@ fun createTaskWithNumProcesses(name: String, processes: Int, debug: Boolean) {
     }
 }
 
+/**
+ * Registers the scaling sweeps of an example, which run it with mpirun for every process count and matrix order and
+ * append the timings of every run to build/scaling/<name>-<strong|weak>.csv.
+ *
+ * The strong scaling sweep keeps every order for every process count. The weak scaling sweep scales every order with
+ * the process count, N * p^(1 / workExponent), so the work per process stays the same: the work of the examples grows
+ * with N^workExponent. The process counts and orders can be changed with -Pprocesses=1,2,4 and -Psizes=2000,4000, and
+ * the options of the example (iterations, warmup...) with -Pargs. When modes are given, every run is repeated with
+ * each --mode (or the ones of -Pmodes=baseline,rma), so the modes can be compared in the same file.
+ */
+fun createSweepTasks(name: String, processes: List<Int>, sizes: List<Int>, workExponent: Int,
+                     modes: List<String> = emptyList()) {
+    fun listProperty(property: String, default: List<Int>): List<Int> =
+        (project.findProperty(property) as String?)?.split(",")?.map { it.trim().toInt() } ?: default
+
+    for (weak in listOf(false, true)) {
+        val kind = if (weak) "weak" else "strong"
+
+        tasks.register("sweep${kind.replaceFirstChar { it.uppercase() }}$name") {
+            dependsOn("classes")
+
+            group = "benchmark"
+            description = "Run the $kind scaling sweep of $name"
+
+            doLast {
+                val csv = layout.buildDirectory.file("scaling/$name-$kind.csv").get().asFile
+                val defaultArgs = listOf("--warmup=1", "--iterations=5")
+
+                csv.parentFile.mkdirs()
+                csv.delete()
+
+                for (n in listProperty("sizes", sizes)) {
+                    for (p in listProperty("processes", processes)) {
+                        val order = if (weak) Math.round(n * Math.pow(p.toDouble(), 1.0 / workExponent)).toInt() else n
+                        val args = defaultArgs + programArgs() + listOf("--n=$order", "--csv=${csv.absolutePath}")
+                        val sweepModes = (project.findProperty("modes") as String?)?.split(",")?.map { it.trim() }
+                            ?: modes
+
+                        for (modeArgs in sweepModes.map { listOf("--mode=$it") }.ifEmpty { listOf(emptyList()) }) {
+                            project.exec {
+                                commandLine = mpiRunCommand(name, p, false, args + modeArgs)
+                                environment("LD_LIBRARY_PATH", mpiLibPath)
+                            }
+                        }
+                    }
+                }
+
+                println("Scaling results written to $csv")
+            }
+        }
+    }
+}
+
 createTaskWithNumProcesses("Blocking", 6, true)
 createTaskWithNumProcesses("Burro", 6, true)
 createTaskWithNumProcesses("Cross", 4, true)
+createTaskWithNumProcesses("DatatypeBenchmark", 2, true)
 createTaskWithNumProcesses("FullParallel", 3, true)
+createTaskWithNumProcesses("Summa", 4, true)
+
+// The weak orders of Blocking stay below 16384, the largest matrix that fits in the window of the rma mode
+createSweepTasks("Blocking", listOf(1, 2, 4, 6), listOf(3000, 6000), 2, listOf("baseline", "rma"))
+// The cross datatype addresses the first 2 GB of the matrix, so the weak orders of Cross stay below 23170
+createSweepTasks("Cross", listOf(1, 2, 4), listOf(5000, 10000), 2)
+createSweepTasks("FullParallel", listOf(1, 2, 3, 4), listOf(1000, 2000), 3)
+
+// The simulator does not use MPI, so it runs in a single JVM
+tasks.register<JavaExec>("runBurroSimulator") {
+    dependsOn("classes")
+
+    group = "application"
+    description = "Run BurroSimulator in a single JVM"
+
+    classpath = sourceSets.main.get().runtimeClasspath
+    mainClass.set("jromp.mpi.examples.BurroSimulator")
+    jvmArgs(vectorModuleArgs)
+    args(programArgs())
+}
+
+// JMH options, e.g. -Pargs="MatMulBenchmark -p n=512 -f 1"
+tasks.register<JavaExec>("jmh") {
+    dependsOn("jmhClasses")
+
+    group = "benchmark"
+    description = "Run the JMH benchmarks of the compute kernels"
+
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+    jvmArgs(vectorModuleArgs)
+    args(programArgs())
+
+    // The buffers of the MPI bindings load the native library
+    environment("LD_LIBRARY_PATH", mpiLibPath)
+}
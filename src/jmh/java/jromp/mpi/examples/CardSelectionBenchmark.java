@@ -0,0 +1,71 @@
+package jromp.mpi.examples;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static jromp.mpi.examples.BurroPlayer.HAND_SIZE;
+
+/**
+ * The card selection of a Burro player with every strategy, over the hands of {@value #NUM_PLAYERS} players so the
+ * hands are not always the same.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CardSelectionBenchmark {
+    private static final int NUM_PLAYERS = 1024;
+    private static final int NUM_NUMBERS = 6;
+
+    @Param({ "simple", "least-frequent" })
+    public String strategyName;
+
+    private BurroPlayer[] players;
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42);
+        CardSelectionStrategy strategy = CardSelectionStrategy.byName(strategyName);
+        int[] hands = new int[NUM_PLAYERS * HAND_SIZE];
+
+        // Deal games of NUM_NUMBERS players until every player has a hand
+        for (int offset = 0; offset < hands.length; offset += NUM_NUMBERS * HAND_SIZE) {
+            int[] deck = new int[NUM_NUMBERS * HAND_SIZE];
+            BurroPlayer.deal(deck, NUM_NUMBERS, random);
+            System.arraycopy(deck, 0, hands, offset, Math.min(deck.length, hands.length - offset));
+        }
+
+        players = new BurroPlayer[NUM_PLAYERS];
+
+        for (int p = 0; p < NUM_PLAYERS; p++) {
+            players[p] = new BurroPlayer(hands, p * HAND_SIZE, strategy, random);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_PLAYERS)
+    public int selectCard() {
+        int positions = 0;
+
+        for (BurroPlayer player : players) {
+            positions += player.selectCard();
+        }
+
+        return positions;
+    }
+}
@@ -0,0 +1,87 @@
+package jromp.mpi.examples;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The summation of the elements of the cross in {@link Cross}, and the ways of getting a matrix into a direct buffer:
+ * the element by element copy of an array that {@code Cross} used to do before sending the matrix, a bulk copy of the
+ * array, and generating the matrix directly in the buffer as it is done now.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = { "--add-modules", "jdk.incubator.vector" })
+public class CrossBenchmark {
+    private static final int NUM_THREADS = 4;
+    private static final int MAX_VALUE = 10;
+
+    @Param({ "2000", "8000" })
+    public int n;
+
+    private int[] array;
+    private IntBuffer matrix;
+    private MatrixGenerator generator;
+
+    @Setup
+    public void setup() {
+        array = new int[n * n];
+        matrix = ByteBuffer.allocateDirect(n * n * Integer.BYTES).order(ByteOrder.nativeOrder()).asIntBuffer();
+        generator = new MatrixGenerator(42, n);
+
+        generator.fillInts(matrix, 0, 0, n * n, MAX_VALUE);
+        matrix.get(0, array);
+    }
+
+    @Benchmark
+    public long sequentialSum() {
+        return Simd.longSum(matrix, 0, n * n);
+    }
+
+    @Benchmark
+    public long parallelSum() {
+        return Cross.parallel_sum(matrix, n * n, NUM_THREADS);
+    }
+
+    /**
+     * The former {@code intArrayToByteBuffer}: a new direct buffer filled one element at a time.
+     */
+    @Benchmark
+    public ByteBuffer elementCopy() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(array.length * Integer.BYTES).order(ByteOrder.nativeOrder());
+
+        for (int i = 0; i < array.length; i++) {
+            buffer.putInt(array[i]);
+        }
+
+        return buffer;
+    }
+
+    @Benchmark
+    public IntBuffer bulkCopy() {
+        return matrix.put(0, array);
+    }
+
+    @Benchmark
+    public IntBuffer parallelGenerate() {
+        generator.parallelFillInts(matrix, 0, 0, n * n, MAX_VALUE, NUM_THREADS);
+
+        return matrix;
+    }
+}
@@ -0,0 +1,72 @@
+package jromp.mpi.examples;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Multiplication of square matrices stored in direct buffers, as done by every process of {@link FullParallel}: with
+ * a single thread and with the JROMP threads of {@link FullParallel#multiplyRows}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = { "--add-modules", "jdk.incubator.vector" })
+public class MatMulBenchmark {
+    private static final int NUM_THREADS = 4;
+    private static final long SEED = 42;
+
+    @Param({ "256", "512", "1024" })
+    public int n;
+
+    @Param({ "ikj", "blocked", "vector" })
+    public String kernelName;
+
+    private MatMulKernel kernel;
+    private DoubleMatrix a;
+    private DoubleMatrix b;
+    private DoubleMatrix c;
+
+    @Setup
+    public void setup() {
+        kernel = MatMulKernels.byName(kernelName, MatMulKernels.DEFAULT_TILE);
+        a = matrix(n, SEED);
+        b = matrix(n, SEED + 1);
+        c = new DoubleMatrix(ByteBuffer.allocateDirect(n * n * Double.BYTES)
+                                       .order(ByteOrder.nativeOrder())
+                                       .asDoubleBuffer(), n, n);
+    }
+
+    @Benchmark
+    public void sequential() {
+        kernel.multiply(a, b, c, 0, n);
+    }
+
+    @Benchmark
+    public void parallel() {
+        FullParallel.multiplyRows(kernel, NUM_THREADS, a, b, c, 0, n);
+    }
+
+    private static DoubleMatrix matrix(int n, long seed) {
+        DoubleMatrix matrix = new DoubleMatrix(ByteBuffer.allocateDirect(n * n * Double.BYTES)
+                                                         .order(ByteOrder.nativeOrder())
+                                                         .asDoubleBuffer(), n, n);
+        new MatrixGenerator(seed, n).fillDoubles(matrix.buffer(), 0, 0, n * n, 1.0);
+
+        return matrix;
+    }
+}
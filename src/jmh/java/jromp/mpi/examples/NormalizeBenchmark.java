@@ -0,0 +1,75 @@
+package jromp.mpi.examples;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The sum and division loops of {@link Blocking#normalize}, over a buffer that wraps a heap array or a direct buffer.
+ * The division alternates between the mean and its inverse, so the values of the buffer do not drift across
+ * invocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = { "--add-modules", "jdk.incubator.vector" })
+public class NormalizeBenchmark {
+    private static final int NUM_THREADS = 4;
+    private static final double MAX_VALUE = 101;
+
+    @Param({ "1048576", "16777216" })
+    public int elements;
+
+    @Param({ "heap", "direct" })
+    public String storage;
+
+    private DoubleBuffer buffer;
+    private double[] threadTimes;
+    private double mean;
+    private boolean inverse;
+
+    @Setup
+    public void setup() {
+        buffer = storage.equals("heap")
+                 ? DoubleBuffer.allocate(elements)
+                 : ByteBuffer.allocateDirect(elements * Double.BYTES).order(ByteOrder.nativeOrder()).asDoubleBuffer();
+        threadTimes = new double[2 * NUM_THREADS];
+
+        new MatrixGenerator(42, elements).fillDoubles(buffer, 0, 0, elements, MAX_VALUE);
+        mean = Blocking.parallelSum(buffer, elements, NUM_THREADS, threadTimes).value() / elements;
+    }
+
+    @Benchmark
+    public double sequentialSum() {
+        KahanSum sum = new KahanSum();
+        Simd.compensatedSum(buffer, 0, elements, sum);
+
+        return sum.value();
+    }
+
+    @Benchmark
+    public double parallelSum() {
+        return Blocking.parallelSum(buffer, elements, NUM_THREADS, threadTimes).value();
+    }
+
+    @Benchmark
+    public void parallelDivide() {
+        inverse = !inverse;
+        Blocking.parallelDivide(buffer, elements, inverse ? mean : 1 / mean, NUM_THREADS, threadTimes);
+    }
+}
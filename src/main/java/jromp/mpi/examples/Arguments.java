@@ -0,0 +1,83 @@
+package jromp.mpi.examples;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Minimal parser for the {@code --key=value} and {@code --flag} options accepted by the examples.
+ * Arguments that do not start with {@code --} are ignored, so the remaining MPI arguments can be passed unchanged.
+ */
+public final class Arguments {
+    private final Map<String, String> values;
+
+    private Arguments(Map<String, String> values) {
+        this.values = values;
+    }
+
+    public static Arguments parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                continue;
+            }
+
+            int separator = arg.indexOf('=');
+
+            if (separator < 0) {
+                values.put(arg.substring(2), "true");
+            } else {
+                values.put(arg.substring(2, separator), arg.substring(separator + 1));
+            }
+        }
+
+        return new Arguments(values);
+    }
+
+    public boolean has(String key) {
+        return values.containsKey(key);
+    }
+
+    public String getString(String key, String defaultValue) {
+        return values.getOrDefault(key, defaultValue);
+    }
+
+    public int getInt(String key, int defaultValue) {
+        String value = values.get(key);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    public long getLong(String key, long defaultValue) {
+        String value = values.get(key);
+        return value == null ? defaultValue : Long.parseLong(value);
+    }
+
+    public boolean getBoolean(String key) {
+        return Boolean.parseBoolean(values.getOrDefault(key, "false"));
+    }
+
+    /**
+     * Parses a comma separated list of integers, e.g. {@code --tile=64,256,128}.
+     *
+     * @param key           the name of the option.
+     * @param defaultValues the values returned when the option is not present.
+     *
+     * @return the parsed values.
+     */
+    public int[] getIntList(String key, int... defaultValues) {
+        String value = values.get(key);
+
+        if (value == null) {
+            return defaultValues;
+        }
+
+        String[] parts = value.split(",");
+        int[] result = new int[parts.length];
+
+        for (int i = 0; i < parts.length; i++) {
+            result[i] = Integer.parseInt(parts[i].trim());
+        }
+
+        return result;
+    }
+}
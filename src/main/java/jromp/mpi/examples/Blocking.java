@@ -1,42 +1,219 @@
 package jromp.mpi.examples;
 
+import jromp.parallel.Parallel;
 import mpi.MPI;
 import mpi.MPIException;
+import mpi.Request;
+import mpi.Win;
 
+import java.io.IOException;
 import java.nio.DoubleBuffer;
-import java.util.Random;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static jromp.mpi.examples.Utils.printf;
 
 @SuppressWarnings("all")
 public class Blocking {
     private static final int N = 10000;
-    private static final Random random = new Random();
+    private static final int NUM_THREADS = 4;
+    private static final int WINDOW_SIZE = 1 << 22;
+    private static final int NUM_SUBCHUNKS = 8;
+    private static final double MAX_VALUE = 101;
+
+    /**
+     * Largest matrix that fits in one direct buffer or window: the bindings compute their size in bytes in an int.
+     */
+    private static final int MAX_MATRIX_ELEMENTS = Integer.MAX_VALUE / Double.BYTES;
+
+    private static final int SCATTER = 0;
+    private static final int SUM = 1;
+    private static final int REDUCE = 2;
+    private static final int DIVIDE = 3;
+    private static final int GATHER = 4;
+    private static final int NUM_PHASES = 5;
+    private static final String[] PHASE_NAMES = { "scatter", "sum", "reduce", "divide", "gather", "total" };
+
+    private static ProfiledComm COMM;
+
+    /**
+     * Origin of the elements of the matrix: they are generated, or read from the mappings of a stored matrix when
+     * {@code --store} is given.
+     */
+    static final class Source {
+        private final MatrixGenerator generator;
+        private final MatrixStore store;
+
+        Source(MatrixGenerator generator, MatrixStore store) {
+            this.generator = generator;
+            this.store = store;
+        }
 
-    public static void main(String[] args) throws MPIException {
+        /**
+         * Writes the elements {@code [first, first + count)} of the matrix to {@code target[offset, offset + count)}.
+         */
+        void load(DoubleBuffer target, int offset, long first, int count, int numThreads) throws IOException {
+            if (store != null) {
+                target.put(offset, store.doubles(first, count), 0, count);
+            } else {
+                generator.parallelFillDoubles(target, offset, first, count, MAX_VALUE, numThreads);
+            }
+        }
+
+        /**
+         * @return the elements {@code [first, first + count)} of the matrix: a view of the stored matrix, or the given
+         *         buffer after generating them into it.
+         */
+        DoubleBuffer input(DoubleBuffer buffer, long first, int count, int numThreads) throws IOException {
+            if (store != null) {
+                return store.doubles(first, count);
+            }
+
+            generator.parallelFillDoubles(buffer, 0, first, count, MAX_VALUE, numThreads);
+            return buffer;
+        }
+    }
+
+    public static void main(String[] args) throws MPIException, IOException {
         int rank;
         int size;
+
+        MPI.InitThread(args, MPI.THREAD_FUNNELED);
+
+        Arguments arguments = Arguments.parse(args);
+        COMM = new ProfiledComm(MPI.COMM_WORLD, arguments);
+        rank = COMM.getRank();
+        size = COMM.getSize();
+
+        final int numThreads = arguments.getInt("threads", NUM_THREADS);
+        final boolean distributedInit = arguments.getBoolean("distributed-init");
+        final String mode = arguments.getString("mode", "baseline");
+        final int n = arguments.getInt("n", N);
+        final long totalElements = (long) n * n;
+
+        // Only the streaming mode moves the matrix in windows, the others hold it whole in the root
+        if (!mode.equals("streaming") && totalElements > MAX_MATRIX_ELEMENTS) {
+            throw new IllegalArgumentException("The " + mode + " mode supports n <= "
+                                               + (int) Math.sqrt(MAX_MATRIX_ELEMENTS) + ", not " + n
+                                               + ". Use --mode=streaming for larger matrices");
+        }
+
+        // All the processes use the seed of the root, so the matrix is the same whoever generates it
+        long[] seed = { arguments.getLong("seed", System.currentTimeMillis()) };
+        COMM.bcast(seed, 1, MPI.LONG, 0);
+
+        // A stored matrix is reused if it has the right dimensions, and its own seed replaces the given one
+        MatrixStore store = null;
+
+        if (arguments.has("store")) {
+            store = MatrixStore.openOrGenerate(MPI.COMM_WORLD, Path.of(arguments.getString("store", null)),
+                                               MatrixStore.ElementType.DOUBLE, n, seed[0], MAX_VALUE, numThreads);
+            seed[0] = store.seed();
+        }
+
+        final Source source = new Source(new MatrixGenerator(seed[0], n), store);
+
+        final ScalingReport report = new ScalingReport(MPI.COMM_WORLD, "Blocking-" + mode, n, numThreads, arguments);
+        double[] phaseTimes = new double[NUM_PHASES];
+        double[] threadTimes = new double[2 * numThreads];
+        double[] referenceTimes = null;
+        double[] iterationTimes = new double[NUM_PHASES + 1];
+        double startTime = 0.0;
+
+        if (mode.equals("pipelined") && arguments.getBoolean("compare")) {
+            // Run the blocking version first, to know how much communication the pipeline hides
+            referenceTimes = new double[NUM_PHASES];
+            COMM.barrier();
+            baseline(rank, size, (int) totalElements, source, distributedInit, numThreads, referenceTimes,
+                     new double[2 * numThreads]);
+        }
+
+        // The timings printed per rank are the ones of the last iteration
+        for (int iteration = report.firstIteration(); iteration < report.iterations(); iteration++) {
+            Arrays.fill(phaseTimes, 0.0);
+            Arrays.fill(threadTimes, 0.0);
+
+            COMM.barrier();
+            startTime = MPI.wtime();
+
+            switch (mode) {
+                case "baseline" -> baseline(rank, size, (int) totalElements, source, distributedInit, numThreads,
+                                            phaseTimes, threadTimes);
+                case "streaming" -> streaming(rank, size, totalElements, arguments.getInt("window", WINDOW_SIZE),
+                                              source, distributedInit, numThreads, phaseTimes, threadTimes);
+                case "pipelined" -> pipelined(rank, size, (int) totalElements,
+                                              arguments.getInt("subchunks", NUM_SUBCHUNKS), source, distributedInit,
+                                              numThreads, phaseTimes, threadTimes);
+                case "rma" -> rma(rank, size, (int) totalElements, arguments.getString("epoch", "fence"), source,
+                                  distributedInit, numThreads, phaseTimes, threadTimes);
+                default -> throw new IllegalArgumentException("Unknown mode: " + mode);
+            }
+
+            System.arraycopy(phaseTimes, 0, iterationTimes, 0, NUM_PHASES);
+            iterationTimes[NUM_PHASES] = MPI.wtime() - startTime;
+            report.record(iteration, PHASE_NAMES, iterationTimes);
+        }
+
+        // Print the execution time on the master process
+        if (rank == 0) {
+            double endTime = MPI.wtime();
+            System.out.printf("Execution time: %f seconds\n", endTime - startTime);
+        }
+
+        printTimings(rank, size, numThreads, phaseTimes, threadTimes);
+
+        if (referenceTimes != null) {
+            printOverlap(rank, phaseTimes, referenceTimes);
+        }
+
+        report.report();
+
+        if (store != null) {
+            store.close();
+        }
+
+        COMM.report();
+        MPI.Finalize();
+    }
+
+    /**
+     * Scatters the whole matrix from the root process, normalizes the chunks and gathers them back. The chunks differ
+     * at most by one element, so any number of processes is supported.
+     */
+    static void baseline(int rank, int size, int totalElements, Source source, boolean distributedInit,
+                         int numThreads, double[] phaseTimes, double[] threadTimes) throws MPIException, IOException {
+        final int[] counts = Utils.blockSizes(totalElements, size);
+        final int[] displacements = Utils.displacements(counts);
+        final int numElements = counts[rank];
         DoubleBuffer matrix = null;
-        DoubleBuffer localSum = MPI.newDoubleBuffer(1);
-        DoubleBuffer globalSum = MPI.newDoubleBuffer(1);
+        DoubleBuffer input = null;
+        DoubleBuffer matrixChunkBuffer = BufferPool.SHARED.doubles(numElements);
         double startTime;
         double endTime;
 
-        MPI.Init(args);
-        rank = MPI.COMM_WORLD.getRank();
-        size = MPI.COMM_WORLD.getSize();
+        if (rank == 0) {
+            matrix = BufferPool.SHARED.doubles(totalElements);
+        }
 
-        final int numElements = N * N / size;
-        DoubleBuffer matrixChunkBuffer = MPI.newDoubleBuffer(numElements);
+        if (distributedInit) {
+            // Every process generates (or reads) its own chunk in parallel, so there is nothing to scatter
+            startTime = MPI.wtime();
 
-        if (rank == 0) {
-            matrix = MPI.newDoubleBuffer(N * N);
+            source.load(matrixChunkBuffer, 0, displacements[rank], numElements, numThreads);
 
+            COMM.barrier();
+            endTime = MPI.wtime();
+
+            if (rank == 0) {
+                System.out.printf("Distributed initialization time took %f seconds\n", endTime - startTime);
+            }
+        } else if (rank == 0) {
             // Measure the initialization time of the matrix
             startTime = MPI.wtime();
 
-            // Initialize the matrix with random values
-            for (int i = 0; i < N * N; i++) {
-                matrix.put(i, random.nextDouble(101));
-            }
+            // Initialize the matrix with random values. A stored matrix is scattered from its mappings, and the
+            // matrix is only used to gather the result.
+            input = source.input(matrix, 0, totalElements, numThreads);
 
             endTime = MPI.wtime();
             System.out.printf("Initialization time took %f seconds\n", endTime - startTime);
@@ -45,34 +222,507 @@ public class Blocking {
         startTime = MPI.wtime();
 
         // Distribute the data among all the processes
-        MPI.COMM_WORLD.scatter(matrix, numElements, MPI.DOUBLE, matrixChunkBuffer, numElements, MPI.DOUBLE, 0);
+        if (!distributedInit) {
+            COMM.scatterv(input, counts, displacements, MPI.DOUBLE,
+                          matrixChunkBuffer, numElements, MPI.DOUBLE, 0);
+        }
+
+        phaseTimes[SCATTER] = MPI.wtime() - startTime;
+
+        normalize(matrixChunkBuffer, numElements, totalElements, numThreads, phaseTimes, threadTimes);
+
+        startTime = MPI.wtime();
+
+        // Send the updated chunks back to the root process
+        COMM.gatherv(matrixChunkBuffer, numElements, MPI.DOUBLE,
+                     matrix, counts, displacements, MPI.DOUBLE, 0);
+
+        phaseTimes[GATHER] = MPI.wtime() - startTime;
+
+        releaseAll(matrix, matrixChunkBuffer);
+    }
+
+    /**
+     * Moves the matrix through the root process in windows of {@code windowSize} elements, so the memory of the root
+     * is bounded by its chunk plus one window instead of the whole matrix.
+     * <p>
+     * Every window is split among all the processes with {@code scatterv} (the root keeps its part in place), and
+     * each process appends its part of every window to its chunk. After the normalization, the windows are rebuilt in
+     * the root with {@code gatherv} in the same order and handed to the consumer, which here computes a checksum of
+     * the normalized matrix.
+     */
+    static void streaming(int rank, int size, long totalElements, int windowSize, Source source,
+                          boolean distributedInit, int numThreads, double[] phaseTimes, double[] threadTimes)
+            throws MPIException, IOException {
+        final int numWindows = (int) ((totalElements + windowSize - 1) / windowSize);
+        long localElements = 0;
+
+        for (int w = 0; w < numWindows; w++) {
+            localElements += Utils.blockSizes(windowLength(w, windowSize, totalElements), size)[rank];
+        }
+
+        // The chunk and the window are direct buffers, whose size in bytes the bindings compute in an int
+        if (localElements > MAX_MATRIX_ELEMENTS) {
+            throw new IllegalArgumentException("The chunk of a process has " + localElements + " elements, more than "
+                                               + "the " + MAX_MATRIX_ELEMENTS + " of a buffer, use more processes");
+        }
+
+        if (windowSize > MAX_MATRIX_ELEMENTS) {
+            throw new IllegalArgumentException("The window has " + windowSize + " elements, more than the "
+                                               + MAX_MATRIX_ELEMENTS + " of a buffer");
+        }
+
+        final int numElements = (int) localElements;
+        DoubleBuffer chunk = BufferPool.SHARED.doubles(numElements);
+        DoubleBuffer window = rank == 0 ? BufferPool.SHARED.doubles(windowSize) : null;
+        double startTime = MPI.wtime();
+        int offset = 0;
+
+        for (int w = 0; w < numWindows; w++) {
+            final long first = (long) w * windowSize;
+            final int length = windowLength(w, windowSize, totalElements);
+            final int[] counts = Utils.blockSizes(length, size);
+            final int[] displacements = Utils.displacements(counts);
+
+            if (distributedInit) {
+                source.load(chunk, offset, first + displacements[rank], counts[rank], numThreads);
+            } else if (rank == 0) {
+                DoubleBuffer input = source.input(window, first, length, numThreads);
+
+                if (input == window) {
+                    COMM.scatterv(window, counts, displacements, MPI.DOUBLE, 0);
+                    chunk.put(offset, window, displacements[0], counts[0]);
+                } else {
+                    // The window is sent straight from the mapping of the stored matrix
+                    COMM.scatterv(input, counts, displacements, MPI.DOUBLE,
+                                  BufferPool.slice(chunk, offset, counts[0]), counts[0], MPI.DOUBLE, 0);
+                }
+            } else {
+                COMM.scatterv(null, counts, displacements, MPI.DOUBLE,
+                              BufferPool.slice(chunk, offset, counts[rank]), counts[rank], MPI.DOUBLE, 0);
+            }
+
+            offset += counts[rank];
+        }
+
+        phaseTimes[SCATTER] = MPI.wtime() - startTime;
+
+        normalize(chunk, numElements, totalElements, numThreads, phaseTimes, threadTimes);
+
+        startTime = MPI.wtime();
+        KahanSum checksum = new KahanSum();
+        offset = 0;
+
+        for (int w = 0; w < numWindows; w++) {
+            final int length = windowLength(w, windowSize, totalElements);
+            final int[] counts = Utils.blockSizes(length, size);
+            final int[] displacements = Utils.displacements(counts);
+
+            if (rank == 0) {
+                window.put(displacements[0], chunk, offset, counts[0]);
+                COMM.gatherv(window, counts, displacements, MPI.DOUBLE, 0);
+                Simd.compensatedSum(window, 0, length, checksum);
+            } else {
+                COMM.gatherv(BufferPool.slice(chunk, offset, counts[rank]), counts[rank], MPI.DOUBLE,
+                             null, counts, displacements, MPI.DOUBLE, 0);
+            }
+
+            offset += counts[rank];
+        }
+
+        phaseTimes[GATHER] = MPI.wtime() - startTime;
+
+        if (rank == 0) {
+            // The mean of the normalized matrix is one, so the checksum must be close to the number of elements
+            printf("Windows: %d of %d elements, checksum: %f (expected %d)\n",
+                   numWindows, windowSize, checksum.value(), totalElements);
+        }
+    }
+
+    /**
+     * Splits the chunk of every process into {@code numSubchunks} sub-chunks that flow through the phases
+     * independently. All the sub-chunks are scattered with non-blocking {@code iScatterv} calls at once, and each
+     * one is summed as soon as it arrives, while the next ones are still in flight. After the reduction of the mean,
+     * every sub-chunk is sent back with {@code iGatherv} as soon as it is normalized, so the gather of the first
+     * sub-chunks overlaps the division of the last ones.
+     * <p>
+     * The scatter and gather times are the time spent waiting for the requests, that is, the communication that the
+     * pipeline could not hide.
+     */
+    static void pipelined(int rank, int size, int totalElements, int numSubchunks, Source source,
+                          boolean distributedInit, int numThreads, double[] phaseTimes, double[] threadTimes)
+            throws MPIException, IOException {
+        final int[] counts = Utils.blockSizes(totalElements, size);
+        final int[] displacements = Utils.displacements(counts);
+        final int numElements = counts[rank];
+        final int[][] subCounts = new int[numSubchunks][size];
+        final int[][] subDisplacements = new int[numSubchunks][size];
+        DoubleBuffer matrix = null;
+        DoubleBuffer input = null;
+        DoubleBuffer matrixChunkBuffer = BufferPool.SHARED.doubles(numElements);
+        Request[] requests = new Request[numSubchunks];
+
+        // Sub-chunk s of a process starts at its displacement plus the size of its previous sub-chunks
+        for (int r = 0; r < size; r++) {
+            final int[] sizes = Utils.blockSizes(counts[r], numSubchunks);
+            int displacement = displacements[r];
+
+            for (int s = 0; s < numSubchunks; s++) {
+                subCounts[s][r] = sizes[s];
+                subDisplacements[s][r] = displacement;
+                displacement += sizes[s];
+            }
+        }
+
+        if (rank == 0) {
+            matrix = BufferPool.SHARED.doubles(totalElements);
+        }
+
+        if (distributedInit) {
+            source.load(matrixChunkBuffer, 0, displacements[rank], numElements, numThreads);
+        } else if (rank == 0) {
+            input = source.input(matrix, 0, totalElements, numThreads);
+        }
+
+        double startTime = MPI.wtime();
 
-        // Calculate the sum of the received elements
-        for (int i = 0; i < numElements; i++) {
-            localSum.put(0, localSum.get(0) + matrixChunkBuffer.get(i));
+        if (!distributedInit) {
+            for (int s = 0; s < numSubchunks; s++) {
+                requests[s] = COMM.iScatterv(input, subCounts[s], subDisplacements[s], MPI.DOUBLE,
+                                             subChunk(matrixChunkBuffer, subCounts[s], subDisplacements[s],
+                                                      displacements, rank),
+                                             subCounts[s][rank], MPI.DOUBLE, 0);
+            }
+        }
+
+        // Sum every sub-chunk as soon as it arrives
+        KahanSum localSum = new KahanSum();
+        double waitTime = 0.0;
+        double computeTime = 0.0;
+
+        for (int s = 0; s < numSubchunks; s++) {
+            double waitStart = MPI.wtime();
+
+            if (requests[s] != null) {
+                COMM.waitFor(requests[s]);
+            }
+
+            double computeStart = MPI.wtime();
+            waitTime += computeStart - waitStart;
+
+            localSum.add(parallelSum(subChunk(matrixChunkBuffer, subCounts[s], subDisplacements[s], displacements,
+                                              rank),
+                                     subCounts[s][rank], numThreads, threadTimes));
+            computeTime += MPI.wtime() - computeStart;
+        }
+
+        phaseTimes[SCATTER] = waitTime;
+        phaseTimes[SUM] = computeTime;
+
+        double reduceStart = MPI.wtime();
+
+        double[] globalSum = new double[2];
+        COMM.allReduce(new double[] { localSum.sum(), localSum.compensation() }, globalSum, 2, MPI.DOUBLE,
+                       MPI.SUM);
+        final double mean = (globalSum[0] + globalSum[1]) / totalElements;
+
+        double divideStart = MPI.wtime();
+        phaseTimes[REDUCE] = divideStart - reduceStart;
+
+        // Send every sub-chunk back as soon as it is normalized
+        for (int s = 0; s < numSubchunks; s++) {
+            DoubleBuffer subChunk = subChunk(matrixChunkBuffer, subCounts[s], subDisplacements[s], displacements,
+                                             rank);
+
+            parallelDivide(subChunk, subCounts[s][rank], mean, numThreads, threadTimes);
+            requests[s] = COMM.iGatherv(subChunk, subCounts[s][rank], MPI.DOUBLE,
+                                        matrix, subCounts[s], subDisplacements[s], MPI.DOUBLE, 0);
+        }
+
+        double gatherStart = MPI.wtime();
+        phaseTimes[DIVIDE] = gatherStart - divideStart;
+
+        COMM.waitAll(requests);
+
+        phaseTimes[GATHER] = MPI.wtime() - gatherStart;
+
+        releaseAll(matrix, matrixChunkBuffer);
+    }
+
+    /**
+     * Moves the chunks with one-sided operations instead of {@code scatterv} and {@code gatherv}: the root exposes the
+     * whole matrix in a window, every other process gets its chunk from it and, after the normalization, puts the
+     * normalized chunk back in place, so the root does not take part in the transfers. The root normalizes its own
+     * chunk in place in the window, without copying it.
+     * <p>
+     * With {@code --epoch=fence} the transfers are done in epochs between collective fences. With
+     * {@code --epoch=lock} every process locks the window of the root (shared, as the chunks do not overlap) only
+     * around its own transfer, and a barrier tells the root that all the chunks have been put. The scatter time
+     * includes the creation of the window.
+     */
+    static void rma(int rank, int size, int totalElements, String epoch, Source source, boolean distributedInit,
+                    int numThreads, double[] phaseTimes, double[] threadTimes) throws MPIException, IOException {
+        if (!epoch.equals("fence") && !epoch.equals("lock")) {
+            throw new IllegalArgumentException("Unknown epoch: " + epoch);
+        }
+
+        // The bindings compute the size of the window in bytes in an int
+        if ((long) totalElements * Double.BYTES > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("The rma mode supports matrices of up to " + MAX_MATRIX_ELEMENTS
+                                               + " elements (n <= " + (int) Math.sqrt(MAX_MATRIX_ELEMENTS) + "), not "
+                                               + totalElements);
+        }
+
+        final boolean fence = epoch.equals("fence");
+        final int[] counts = Utils.blockSizes(totalElements, size);
+        final int[] displacements = Utils.displacements(counts);
+        final int numElements = counts[rank];
+        DoubleBuffer matrix = null;
+        DoubleBuffer chunk;
+
+        if (rank == 0) {
+            // The window must hold the whole matrix, so a stored matrix is copied into it
+            matrix = BufferPool.SHARED.doubles(totalElements);
+            chunk = BufferPool.slice(matrix, 0, numElements);
+
+            if (distributedInit) {
+                source.load(matrix, 0, 0, numElements, numThreads);
+            } else {
+                source.load(matrix, 0, 0, totalElements, numThreads);
+            }
+        } else {
+            chunk = BufferPool.SHARED.doubles(numElements);
+
+            if (distributedInit) {
+                source.load(chunk, 0, displacements[rank], numElements, numThreads);
+            }
+        }
+
+        double startTime = MPI.wtime();
+
+        // The window of the other processes is empty. The displacements are in elements of the matrix.
+        Win win = COMM.createWin(rank == 0 ? matrix : chunk, rank == 0 ? totalElements : 0, 1);
+
+        if (fence) {
+            COMM.fence(win, MPI.MODE_NOPRECEDE);
+        }
+
+        if (rank != 0 && !distributedInit) {
+            if (!fence) {
+                COMM.lock(win, MPI.LOCK_SHARED, 0, 0);
+            }
+
+            COMM.get(win, chunk, numElements, MPI.DOUBLE, 0, displacements[rank]);
+
+            if (!fence) {
+                COMM.unlock(win, 0);
+            }
+        }
+
+        if (fence) {
+            COMM.fence(win, 0);
+        }
+
+        phaseTimes[SCATTER] = MPI.wtime() - startTime;
+
+        normalize(chunk, numElements, totalElements, numThreads, phaseTimes, threadTimes);
+
+        startTime = MPI.wtime();
+
+        if (rank != 0) {
+            if (!fence) {
+                COMM.lock(win, MPI.LOCK_SHARED, 0, 0);
+            }
+
+            COMM.put(win, chunk, numElements, MPI.DOUBLE, 0, displacements[rank]);
+
+            if (!fence) {
+                COMM.unlock(win, 0);
+            }
+        }
+
+        if (fence) {
+            COMM.fence(win, MPI.MODE_NOSUCCEED);
+        } else {
+            COMM.barrier();
+        }
+
+        phaseTimes[GATHER] = MPI.wtime() - startTime;
+
+        COMM.free(win);
+
+        if (rank == 0) {
+            BufferPool.SHARED.release(matrix);
+        } else {
+            BufferPool.SHARED.release(chunk);
         }
+    }
+
+    /**
+     * @return the view of the local chunk that holds the sub-chunk of the calling process described by the counts and
+     *         displacements of one {@code iScatterv}.
+     */
+    private static DoubleBuffer subChunk(DoubleBuffer chunk, int[] subCounts, int[] subDisplacements,
+                                         int[] displacements, int rank) {
+        return BufferPool.slice(chunk, subDisplacements[rank] - displacements[rank], subCounts[rank]);
+    }
 
-        // Reduce the sum of all the processes
-        MPI.COMM_WORLD.allReduce(localSum, globalSum, 1, MPI.DOUBLE, MPI.SUM);
+    private static void releaseAll(DoubleBuffer matrix, DoubleBuffer chunk) {
+        if (matrix != null) {
+            BufferPool.SHARED.release(matrix);
+        }
+
+        BufferPool.SHARED.release(chunk);
+    }
+
+    private static int windowLength(int window, int windowSize, long totalElements) {
+        return (int) Math.min(windowSize, totalElements - (long) window * windowSize);
+    }
+
+    /**
+     * Divides the elements of every chunk by the mean of the whole matrix: sums the local chunk with all the threads,
+     * reduces the sums of all the processes and divides the local chunk with all the threads.
+     */
+    static void normalize(DoubleBuffer chunk, int numElements, long totalElements, int numThreads,
+                          double[] phaseTimes, double[] threadTimes) throws MPIException {
+        double startTime = MPI.wtime();
+
+        // Calculate the sum of the received elements with all the threads
+        KahanSum localSum = parallelSum(chunk, numElements, numThreads, threadTimes);
+
+        double summedTime = MPI.wtime();
+
+        // Reduce the sum of all the processes. The compensation is reduced too, so it is not lost.
+        double[] globalSum = new double[2];
+        COMM.allReduce(new double[] { localSum.sum(), localSum.compensation() }, globalSum, 2, MPI.DOUBLE,
+                       MPI.SUM);
 
         // Calculate the mean
-        final double mean = globalSum.get() / (N * N);
+        final double mean = (globalSum[0] + globalSum[1]) / totalElements;
+
+        double reducedTime = MPI.wtime();
 
         // Update the matrix chunk by dividing each element by the mean
-        for (int i = 0; i < numElements; i++) {
-            matrixChunkBuffer.put(i, matrixChunkBuffer.get(i) / mean);
+        parallelDivide(chunk, numElements, mean, numThreads, threadTimes);
+
+        phaseTimes[SUM] = summedTime - startTime;
+        phaseTimes[REDUCE] = reducedTime - summedTime;
+        phaseTimes[DIVIDE] = MPI.wtime() - reducedTime;
+    }
+
+    /**
+     * Sums the first {@code count} elements of the buffer with JROMP threads. Every thread keeps its own compensated
+     * sum, and the partial sums are combined after the loop.
+     *
+     * @param threadTimes the time spent by each thread is stored in the first {@code numThreads} positions.
+     *
+     * @return the compensated sum of the elements.
+     */
+    static KahanSum parallelSum(DoubleBuffer buffer, int count, int numThreads, double[] threadTimes) {
+        final KahanSum[] partialSums = new KahanSum[numThreads];
+
+        Parallel.withThreads(numThreads)
+                .parallelFor(0, count, false, (id, start, end, vars) -> {
+                    long threadStart = System.nanoTime();
+
+                    if (partialSums[id] == null) {
+                        partialSums[id] = new KahanSum();
+                    }
+
+                    Simd.compensatedSum(buffer, start, end, partialSums[id]);
+                    threadTimes[id] += (System.nanoTime() - threadStart) / 1e9;
+                })
+                .join();
+
+        KahanSum sum = new KahanSum();
+
+        for (KahanSum partialSum : partialSums) {
+            if (partialSum != null) {
+                sum.add(partialSum);
+            }
         }
 
-        // Send the updated chunks back to the root process
-        MPI.COMM_WORLD.gather(matrixChunkBuffer, numElements, MPI.DOUBLE, matrix, numElements, MPI.DOUBLE, 0);
+        return sum;
+    }
+
+    /**
+     * Divides the first {@code count} elements of the buffer by the mean with JROMP threads.
+     *
+     * @param threadTimes the time spent by each thread is stored in the last {@code numThreads} positions.
+     */
+    static void parallelDivide(DoubleBuffer buffer, int count, double mean, int numThreads, double[] threadTimes) {
+        Parallel.withThreads(numThreads)
+                .parallelFor(0, count, false, (id, start, end, vars) -> {
+                    long threadStart = System.nanoTime();
+                    Simd.divide(buffer, start, end, mean);
+                    threadTimes[numThreads + id] += (System.nanoTime() - threadStart) / 1e9;
+                })
+                .join();
+    }
+
+    /**
+     * Prints, in the root process, the slowest exposed communication and the slowest total time of the pipelined and
+     * the blocking runs.
+     */
+    static void printOverlap(int rank, double[] phaseTimes, double[] referenceTimes) throws MPIException {
+        double[] times = {
+                phaseTimes[SCATTER] + phaseTimes[GATHER],
+                referenceTimes[SCATTER] + referenceTimes[GATHER],
+                Arrays.stream(phaseTimes).sum(),
+                Arrays.stream(referenceTimes).sum()
+        };
+        double[] maxTimes = new double[times.length];
+
+        COMM.reduce(times, maxTimes, times.length, MPI.DOUBLE, MPI.MAX, 0);
 
-        // Print the execution time on the master process
         if (rank == 0) {
-            endTime = MPI.wtime();
-            System.out.printf("Execution time: %f seconds\n", endTime - startTime);
+            double hidden = Math.max(0.0, maxTimes[1] - maxTimes[0]);
+
+            printf("Exposed communication time: %f, blocking: %f, hidden: %f (%.1f%%)\n",
+                   maxTimes[0], maxTimes[1], hidden, maxTimes[1] > 0.0 ? 100.0 * hidden / maxTimes[1] : 0.0);
+            printf("Pipelined time: %f, blocking: %f, speedup: %.2f\n",
+                   maxTimes[2], maxTimes[3], maxTimes[3] / maxTimes[2]);
         }
+    }
 
-        MPI.Finalize();
+    /**
+     * Prints, in the root process, the time of every phase of each process and the time of each of its threads.
+     *
+     * @param phaseTimes  the scatter, sum, reduction, normalization and gather times of the calling process.
+     * @param threadTimes the sum and normalization times of each thread of the calling process.
+     */
+    static void printTimings(int rank, int size, int numThreads, double[] phaseTimes, double[] threadTimes)
+            throws MPIException {
+        final int phases = phaseTimes.length;
+        final int perRank = phases + threadTimes.length;
+        double[] local = new double[perRank];
+        double[] all = new double[perRank * size];
+
+        System.arraycopy(phaseTimes, 0, local, 0, phases);
+        System.arraycopy(threadTimes, 0, local, phases, threadTimes.length);
+        COMM.gather(local, perRank, MPI.DOUBLE, all, perRank, MPI.DOUBLE, 0);
+
+        if (rank != 0) {
+            return;
+        }
+
+        printf("%-6s %12s %12s %12s %12s %12s\n", "Rank", "Scatter(s)", "Sum(s)", "Reduce(s)", "Divide(s)",
+               "Gather(s)");
+
+        for (int r = 0; r < size; r++) {
+            int base = r * perRank;
+            printf("%-6d %12f %12f %12f %12f %12f\n", r, all[base + SCATTER], all[base + SUM], all[base + REDUCE],
+                   all[base + DIVIDE], all[base + GATHER]);
+        }
+
+        printf("%-6s %-6s %12s %12s\n", "Rank", "Thread", "Sum(s)", "Divide(s)");
+
+        for (int r = 0; r < size; r++) {
+            int base = r * perRank + phases;
+
+            for (int t = 0; t < numThreads; t++) {
+                printf("%-6d %-6d %12f %12f\n", r, t, all[base + t], all[base + numThreads + t]);
+            }
+        }
     }
 }
-
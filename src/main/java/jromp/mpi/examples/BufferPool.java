@@ -0,0 +1,120 @@
+package jromp.mpi.examples;
+
+import mpi.MPI;
+
+import java.nio.Buffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Pool of direct buffers allocated with {@link MPI#newDoubleBuffer(int)} and {@link MPI#newIntBuffer(int)}.
+ * <p>
+ * Direct buffers are passed to the MPI library without copying them to or pinning them in the Java heap, but they
+ * are expensive to allocate and are only freed by the garbage collector. The pool keeps released buffers and hands
+ * them out again, so the examples allocate their large payloads once and reuse them across iterations and phases.
+ * The returned buffers have their position set to zero and their limit set to the requested capacity, which may be
+ * smaller than the capacity of the underlying buffer.
+ */
+public final class BufferPool {
+    /**
+     * Pool shared by the examples.
+     */
+    public static final BufferPool SHARED = new BufferPool();
+
+    private final TreeMap<Integer, ArrayDeque<DoubleBuffer>> doubleBuffers = new TreeMap<>();
+    private final TreeMap<Integer, ArrayDeque<IntBuffer>> intBuffers = new TreeMap<>();
+
+    /**
+     * @param capacity the number of elements.
+     *
+     * @return a direct buffer of doubles with at least the given capacity.
+     */
+    public synchronized DoubleBuffer doubles(int capacity) {
+        DoubleBuffer buffer = take(doubleBuffers, capacity);
+
+        if (buffer == null) {
+            buffer = MPI.newDoubleBuffer(capacity);
+        }
+
+        buffer.clear().limit(capacity);
+        return buffer;
+    }
+
+    /**
+     * @param capacity the number of elements.
+     *
+     * @return a direct buffer of integers with at least the given capacity.
+     */
+    public synchronized IntBuffer ints(int capacity) {
+        IntBuffer buffer = take(intBuffers, capacity);
+
+        if (buffer == null) {
+            buffer = MPI.newIntBuffer(capacity);
+        }
+
+        buffer.clear().limit(capacity);
+        return buffer;
+    }
+
+    /**
+     * Returns a buffer to the pool. The buffer must not be used after releasing it.
+     *
+     * @param buffer a buffer obtained from this pool.
+     */
+    public synchronized void release(Buffer buffer) {
+        if (buffer instanceof DoubleBuffer doubles) {
+            doubleBuffers.computeIfAbsent(doubles.capacity(), key -> new ArrayDeque<>()).push(doubles);
+        } else if (buffer instanceof IntBuffer ints) {
+            intBuffers.computeIfAbsent(ints.capacity(), key -> new ArrayDeque<>()).push(ints);
+        } else {
+            throw new IllegalArgumentException("Unsupported buffer type: " + buffer.getClass());
+        }
+    }
+
+    /**
+     * Forgets every pooled buffer, so the garbage collector can free them.
+     */
+    public synchronized void clear() {
+        doubleBuffers.clear();
+        intBuffers.clear();
+    }
+
+    /**
+     * Takes the smallest pooled buffer that can hold the given number of elements.
+     */
+    private static <T extends Buffer> T take(TreeMap<Integer, ArrayDeque<T>> buffers, int capacity) {
+        Map.Entry<Integer, ArrayDeque<T>> entry = buffers.ceilingEntry(capacity);
+
+        if (entry == null) {
+            return null;
+        }
+
+        T buffer = entry.getValue().pop();
+
+        if (entry.getValue().isEmpty()) {
+            buffers.remove(entry.getKey());
+        }
+
+        return buffer;
+    }
+
+    /**
+     * @return a view of {@code length} elements of the buffer starting at {@code offset}. The view shares the
+     *         memory of the buffer, so it can be passed to MPI to send or receive part of a buffer in place.
+     */
+    public static DoubleBuffer slice(DoubleBuffer buffer, int offset, int length) {
+        return buffer.duplicate().clear().position(offset).limit(offset + length).slice();
+    }
+
+    /**
+     * @return a view of {@code length} elements of the buffer starting at {@code offset}.
+     *
+     * @see #slice(DoubleBuffer, int, int)
+     */
+    public static IntBuffer slice(IntBuffer buffer, int offset, int length) {
+        return buffer.duplicate().clear().position(offset).limit(offset + length).slice();
+    }
+}
@@ -1,21 +1,26 @@
 package jromp.mpi.examples;
 
+import com.sun.management.ThreadMXBean;
 import mpi.MPI;
 import mpi.MPIException;
+import mpi.Prequest;
 import mpi.Request;
 import mpi.Status;
 
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
 import java.nio.IntBuffer;
 import java.util.Random;
 
 @SuppressWarnings("all")
 public class Burro {
-    private static final int HAND_SIZE = 4;
+    private static final int HAND_SIZE = BurroPlayer.HAND_SIZE;
     private static final int GAME_NOT_ENDED_TAG = 0xAA;
     private static final int GAME_ENDED_TAG = 0xBB;
-    private static final int SAME_CARD_SELECTION_LIMIT = 10;
-    private static final boolean DEBUG = true;
-    private static final boolean SIMPLE_CARD_SELECTION = false;
+    private static final int BATCH_TAG = 0xCC;
+    private static final int NUM_GAMES = 1000;
+    private static final int MAX_ROUNDS = 10000;
+    private static boolean DEBUG = true;
 
     public static void debugPrint(String msg, Object... args) {
         if (DEBUG) {
@@ -29,241 +34,442 @@ public class Burro {
         }
     }
 
-    record CardSelection(int pos, int card) {
-    }
-
     record Ranks(int prev, int self, int next) {
     }
 
     private static int N;
     private static int DECK_SIZE;
-    private static int SELECTION_LIMIT = SAME_CARD_SELECTION_LIMIT;
-    private static int PREVIOUS_SELECTED_CARD = -1;
     private static Ranks RANKS;
+    private static ProfiledComm COMM;
 
     private static final int END_GAME_MESSAGE = Integer.MAX_VALUE;
     private static final Random RANDOM = new Random();
 
-    private String handToString(int[] hand) {
-        StringBuilder sb = new StringBuilder();
+    private final CardSelectionStrategy strategy;
 
-        for (int i = 0; i < HAND_SIZE; i++) {
-            sb.append(hand[i]);
+    Burro(CardSelectionStrategy strategy) {
+        this.strategy = strategy;
+    }
 
-            if (i < HAND_SIZE - 1) {
-                sb.append(" ");
-            }
-        }
+    /**
+     * Sends the end of the game to all processes except me, through the persistent sends created for it.
+     */
+    void notifyAllGameEnded(Prequest[] endSends) throws MPIException {
+        System.out.print(String.format("Process %d won the game\n", RANKS.self));
+
+        COMM.startAll(endSends);
 
-        return sb.toString();
+        // Wait for all requests to finish
+        COMM.waitAll(endSends);
     }
 
-    private void initializeDeck(int[] deck) {
-        int[] numbers = new int[N];
-        int[] numbersCount = new int[N];
+    void sync() throws MPIException {
+        COMM.barrier();
+    }
 
-        for (int i = 0; i < N; i++) {
-            numbers[i] = i;
-            numbersCount[i] = 0;
+    /**
+     * Every round uses the same buffers, so the card messages are persistent requests created before the first round
+     * and started again in each one. Together with the selection returning a position and the debug messages being
+     * formatted only when they are printed, nothing is allocated once the game is running.
+     *
+     * @return the number of rounds played by this process.
+     */
+    int game(int[] hand) throws MPIException {
+        BurroPlayer player = new BurroPlayer(hand, 0, strategy, RANDOM);
+        int round = 0;
+        boolean gameOver = false;
+        boolean cardPending = false;
+        boolean endPending = true;
+        int position = 0;
+        IntBuffer sentCard = MPI.newIntBuffer(1);
+        IntBuffer receivedCard = MPI.newIntBuffer(1);
+        IntBuffer sentEnd = MPI.newIntBuffer(1).put(0, END_GAME_MESSAGE);
+        IntBuffer receivedEnd = MPI.newIntBuffer(1);
+        Prequest sendCard = COMM.sendInit(sentCard, 1, MPI.INT, RANKS.next, GAME_NOT_ENDED_TAG);
+        Prequest recvCard = COMM.recvInit(receivedCard, 1, MPI.INT, RANKS.prev, GAME_NOT_ENDED_TAG);
+        Prequest recvEnd = COMM.recvInit(receivedEnd, 1, MPI.INT, MPI.ANY_SOURCE, GAME_ENDED_TAG);
+        Prequest[] endSends = new Prequest[N - 1];
+        Request[] receives = { recvCard, recvEnd };
+
+        for (int i = 0, k = 0; i < N; i++) {
+            if (i != RANKS.self) {
+                endSends[k++] = COMM.sendInit(sentEnd, 1, MPI.INT, i, GAME_ENDED_TAG);
+            }
         }
 
-        for (int i = 0; i < DECK_SIZE; i++) {
-            int index = RANDOM.nextInt(N);
+        if (DEBUG) {
+            debugPrint("Process %d starts the game with hand: %s\n", RANKS.self, player.handToString());
+        }
+
+        // The end of the game can arrive in any round
+        COMM.start(recvEnd);
+
+        // Allow all the processes to print the initial hand before starting the game loop
+        sync();
 
-            while (numbersCount[index] >= HAND_SIZE) {
-                index = RANDOM.nextInt(N);
+        // Main game loop
+        do {
+            if (player.hasFullHand()) {
+                gameOver = true;
+                notifyAllGameEnded(endSends);
             }
 
-            deck[i] = numbers[index];
-            numbersCount[index]++;
-        }
-    }
+            sync();
+
+            // The winning process does not select card anymore
+            if (!gameOver) {
+                // Select a card from the hand and send it to the next process
+                position = player.selectCard();
+                sentCard.put(0, player.card(position));
+
+                if (DEBUG) {
+                    debugPrint("P%d: Before sending card %d to P%d\n", RANKS.self, sentCard.get(0), RANKS.next);
+                }
+
+                COMM.start(recvCard);
+                cardPending = true;
+                COMM.start(sendCard);
+                COMM.waitFor(sendCard);
+            }
+
+            /**
+             * Sync all processes here (included the winner process) to avoid
+             * the winner process exiting before the others.
+             */
+            sync();
 
-    private boolean isFullHand(int[] hand) {
-        final int firstCard = hand[0];
+            if (gameOver) {
+                if (DEBUG) {
+                    debugPrint("Process %d exiting\n", RANKS.self);
+                }
 
-        for (int i = 1; i < HAND_SIZE; i++) {
-            if (hand[i] != firstCard) {
-                return false;
+                break;
+                // Only the winner process exits here, since it is the only one that has game_over = true.
             }
+
+            // The end of the game takes precedence over a card received in the same round
+            if (COMM.waitAny(receives) == 1 || recvEnd.test()) {
+                endPending = false;
+
+                if (DEBUG) {
+                    debugPrint("P%d (I%d): Exiting. Received end game message\n", RANKS.self, round);
+                }
+
+                round++;
+                gameOver = true;
+                // Exit the loop
+            } else {
+                cardPending = false;
+
+                String handString = DEBUG ? player.handToString() : null;
+
+                // Store the received card in the hand
+                player.replaceCard(position, receivedCard.get(0));
+
+                if (DEBUG) {
+                    debugPrint("P%d (I%d): Sent %d to P%d. Recv %d from P%d. Hand: %s -> %s\n",
+                               RANKS.self, round, sentCard.get(0), RANKS.next,
+                               receivedCard.get(0), RANKS.prev, handString, player.handToString());
+                }
+
+                round++;
+            }
+        } while (!gameOver);
+
+        // A winner sends no card and receives no end message, so those receives are still posted
+        if (cardPending) {
+            recvCard.cancel();
+            COMM.waitFor(recvCard);
+        }
+
+        if (endPending) {
+            recvEnd.cancel();
+            COMM.waitFor(recvEnd);
         }
 
-        return true;
+        COMM.free(sendCard);
+        COMM.free(recvCard);
+        COMM.free(recvEnd);
+
+        for (Prequest endSend : endSends) {
+            COMM.free(endSend);
+        }
+
+        return round;
     }
 
-    private CardSelection select_card(int[] hand) {
-        int selectedPos;
-        int selectedCard;
-
-        if (SIMPLE_CARD_SELECTION) {
-            selectedPos = RANDOM.nextInt(HAND_SIZE);
-            selectedCard = hand[selectedPos];
-        } else {
-            // Select the least frequent card in the hand
-            int[] handNumbers = new int[HAND_SIZE];
-            int[] numbersCount = new int[HAND_SIZE];
-
-            for (int i = 0; i < HAND_SIZE; i++) {
-                handNumbers[i] = hand[i];
-                numbersCount[i] = 0;
-
-                for (int j = 0; j < HAND_SIZE; j++) {
-                    if (handNumbers[i] == hand[j]) {
-                        numbersCount[i]++;
-                    }
+    /**
+     * Game engine driven only by the messages of the ring, without barriers or busy polling.
+     * <p>
+     * Every process keeps a receive for the card of the previous process and a receive for the end of the game
+     * posted, and blocks in {@code waitAny} until one of them completes. A winner sends the end message to every
+     * process, itself included, so all the processes expect one end message per winner. Once the game is over, each
+     * process sends a {@link #END_GAME_MESSAGE} card to the next one and keeps receiving cards from the previous one
+     * until it gets that sentinel, which drains the cards that were still in flight through the ring. A sentinel can
+     * also arrive before the end message, and then it ends the game of the process too. Finally, the number of winners
+     * is reduced once to receive the end messages of the other winners of the same round.
+     * <p>
+     * The cards always use the same buffers, so they travel through persistent requests that are started again in
+     * every round; waiting for a persistent send that was never started returns immediately.
+     *
+     * @return the number of rounds played by this process.
+     */
+    int eventGame(int[] hand) throws MPIException {
+        BurroPlayer player = new BurroPlayer(hand, 0, strategy, RANDOM);
+        int round = 0;
+        boolean won = false;
+        boolean previousEnded = false;
+        int endMessages = 0;
+        IntBuffer receivedCard = MPI.newIntBuffer(1);
+        IntBuffer receivedEnd = MPI.newIntBuffer(1);
+        IntBuffer sentCard = MPI.newIntBuffer(1);
+        IntBuffer sentEnd = MPI.newIntBuffer(1).put(0, END_GAME_MESSAGE);
+        Prequest sendCard = COMM.sendInit(sentCard, 1, MPI.INT, RANKS.next, GAME_NOT_ENDED_TAG);
+        Prequest recvCard = COMM.recvInit(receivedCard, 1, MPI.INT, RANKS.prev, GAME_NOT_ENDED_TAG);
+        Request[] requests = {
+                recvCard,
+                COMM.iRecv(receivedEnd, 1, MPI.INT, MPI.ANY_SOURCE, GAME_ENDED_TAG)
+        };
+
+        COMM.start(recvCard);
+
+        if (DEBUG) {
+            debugPrint("Process %d starts the game with hand: %s\n", RANKS.self, player.handToString());
+        }
+
+        while (true) {
+            if (player.hasFullHand()) {
+                won = true;
+                System.out.print(String.format("Process %d won the game\n", RANKS.self));
+
+                Request[] endRequests = new Request[N];
+
+                for (int i = 0; i < N; i++) {
+                    endRequests[i] = COMM.iSend(sentEnd, 1, MPI.INT, i, GAME_ENDED_TAG);
+                }
+
+                COMM.waitAll(endRequests);
+                break;
+            }
+
+            int position = player.selectCard();
+
+            // The card buffer can only be reused once the previous card has left
+            COMM.waitFor(sendCard);
+
+            sentCard.put(0, player.card(position));
+            COMM.start(sendCard);
+
+            if (COMM.waitAny(requests) == 1) {
+                endMessages++;
+
+                if (DEBUG) {
+                    debugPrint("P%d (I%d): Exiting. Received end game message\n", RANKS.self, round);
                 }
+
+                break;
             }
 
-            selectedPos = 0;
-            selectedCard = hand[selectedPos];
+            // waitAny returns the first completed request, so the end message may still be pending when the previous
+            // process has already left the game and sent its sentinel
+            if (receivedCard.get(0) == END_GAME_MESSAGE) {
+                previousEnded = true;
 
-            for (int i = 1; i < HAND_SIZE; i++) {
-                if (numbersCount[i] < numbersCount[selectedPos]) {
-                    selectedPos = i;
-                    selectedCard = handNumbers[selectedPos]; // This is the least frequent card
+                if (DEBUG) {
+                    debugPrint("P%d (I%d): Exiting. P%d left the game\n", RANKS.self, round, RANKS.prev);
                 }
+
+                break;
             }
 
-            // If the selected card is the same as the previous one, select another random card.
-            SELECTION_LIMIT--;
-            if (selectedCard == PREVIOUS_SELECTED_CARD && SELECTION_LIMIT == 0) {
-                do {
-                    selectedPos = RANDOM.nextInt(HAND_SIZE);
-                } while (hand[selectedPos] == PREVIOUS_SELECTED_CARD); // Prevent selecting the same card
+            player.replaceCard(position, receivedCard.get(0));
+            COMM.start(recvCard);
 
-                selectedCard = hand[selectedPos]; // Update the selected card if needed
-                SELECTION_LIMIT = SAME_CARD_SELECTION_LIMIT;
+            if (DEBUG) {
+                debugPrint("P%d (I%d): Sent %d to P%d. Recv %d from P%d. Hand: %s\n",
+                           RANKS.self, round, sentCard.get(0), RANKS.next, player.card(position), RANKS.prev,
+                           player.handToString());
             }
 
-            PREVIOUS_SELECTED_CARD = selectedCard; // Update the previous selected card
+            round++;
         }
 
-        return new CardSelection(selectedPos, selectedCard);
-    }
+        // Drain the ring: the sentinel is the last card this process sends
+        COMM.waitFor(sendCard);
 
-    void notifyAllGameEnded() throws MPIException {
-        System.out.print(String.format("Process %d won the game\n", RANKS.self));
+        sentCard.put(0, END_GAME_MESSAGE);
+        COMM.start(sendCard);
 
-        // Send the end game received_card to all processes except me
-        Request[] requests = new Request[N - 1];
-        int requestCount = 0;
+        // The previous process sends nothing after its sentinel, so the receive is not started again once it arrived
+        if (!previousEnded) {
+            COMM.waitFor(recvCard);
 
-        for (int i = 0; i < N; i++) {
-            if (i == RANKS.self) {
-                continue;
+            while (receivedCard.get(0) != END_GAME_MESSAGE) {
+                COMM.recv(receivedCard, 1, MPI.INT, RANKS.prev, GAME_NOT_ENDED_TAG);
             }
+        }
+
+        COMM.waitFor(sendCard);
+        COMM.free(sendCard);
+        COMM.free(recvCard);
+
+        // Receive the end messages of all the winners
+        int[] winners = { won ? 1 : 0 };
+        COMM.allReduce(winners, 1, MPI.INT, MPI.SUM);
 
-            IntBuffer buffer = MPI.newIntBuffer(1);
-            buffer.put(END_GAME_MESSAGE);
-            Request request = MPI.COMM_WORLD.iSend(buffer, 1, MPI.INT, i, GAME_ENDED_TAG);
-            requests[requestCount++] = request;
+        if (endMessages == 0) {
+            COMM.waitFor(requests[1]);
+            endMessages++;
         }
 
-        // Wait for all requests to finish
-        Request.waitAll(requests);
-    }
+        for (; endMessages < winners[0]; endMessages++) {
+            COMM.recv(receivedEnd, 1, MPI.INT, MPI.ANY_SOURCE, GAME_ENDED_TAG);
+        }
 
-    void sync() throws MPIException {
-        MPI.COMM_WORLD.iBarrier().waitFor();
+        return round;
     }
 
-    void game(int[] hand) throws MPIException {
+    /**
+     * Plays {@code games} independent games at once over the same ring, and prints the number of games per second
+     * and the wins of every seat in the root process.
+     * <p>
+     * Every process holds one hand per game. In each round, the games won by any process are marked in a bitmap that
+     * is combined with a bitwise or, so all the processes agree on the games that are still active. Then the cards
+     * selected in all the active games are packed, in the order of the games, into a single message to the next
+     * process, so the latency of a message is shared by all the games. The games that nobody wins in
+     * {@code maxRounds} rounds are counted as draws. If several processes complete their hands of a game in the same
+     * round, the win goes to the lowest rank among them, so every finished game has one winner.
+     */
+    void batch(int games, int maxRounds) throws MPIException {
+        final int handsSize = games * HAND_SIZE;
+        int[] hands = new int[handsSize];
+        int[] deal = null;
+
+        if (RANKS.self == 0) {
+            // The deal of every process holds its hand of every game
+            int[] deck = new int[DECK_SIZE];
+            deal = new int[N * handsSize];
+
+            for (int g = 0; g < games; g++) {
+                BurroPlayer.deal(deck, N, RANDOM);
+
+                for (int r = 0; r < N; r++) {
+                    System.arraycopy(deck, r * HAND_SIZE, deal, r * handsSize + g * HAND_SIZE, HAND_SIZE);
+                }
+            }
+        }
+
+        COMM.scatter(deal, handsSize, MPI.INT, hands, handsSize, MPI.INT, 0);
+
+        BurroPlayer[] players = new BurroPlayer[games];
+        int[] selectedPositions = new int[games];
+        long[] finished = new long[(games + Long.SIZE - 1) / Long.SIZE];
+        long[] completed = new long[finished.length];
+        IntBuffer sentCards = BufferPool.SHARED.ints(games);
+        IntBuffer receivedCards = BufferPool.SHARED.ints(games);
+        int active = games;
         int round = 0;
-        boolean gameOver = false;
-        Request barrierRequest;
-        Request recvRequest;
-        Request sendRequest;
-        Status status;
-        int receivedMessageFlag;
-        int receivedCard;
-        CardSelection selection = null;
-
-        debugPrint(
-                "Process %d starts the game with hand: %s\n",
-                RANKS.self, handToString(hand)
-        );
 
-        // Allow all the processes to print the initial hand before starting the game loop
-        sync();
+        for (int g = 0; g < games; g++) {
+            players[g] = new BurroPlayer(hands, g * HAND_SIZE, strategy, RANDOM);
+        }
 
-        // Main game loop
-        do {
-            if (isFullHand(hand)) {
-                gameOver = true;
-                notifyAllGameEnded();
+        COMM.barrier();
+        double start = MPI.wtime();
+
+        while (active > 0 && round < maxRounds) {
+            for (int g = 0; g < games; g++) {
+                if (!isFinished(finished, g) && players[g].hasFullHand()) {
+                    finished[g / Long.SIZE] |= 1L << g;
+                    completed[g / Long.SIZE] |= 1L << g;
+                }
             }
 
-            sync();
+            COMM.allReduce(finished, finished.length, MPI.LONG, MPI.BOR);
 
-            // The winning process does not select card anymore
-            if (!gameOver) {
-                // Select a selected_card from the hand and send it to the next process
-                selection = select_card(hand);
-
-                System.out.print(
-                        String.format("P%d: Before sending card %d to P%d\n", RANKS.self, selection.card, RANKS.next));
-                IntBuffer cardSelectionBuffer = MPI.newIntBuffer(1).put(selection.card);
-                sendRequest = MPI.COMM_WORLD.iSend(cardSelectionBuffer, 1, MPI.INT, RANKS.next, GAME_NOT_ENDED_TAG);
-                sendRequest.waitFor();
-            }
+            // Pack the selected cards of the active games
+            active = 0;
 
-            /**
-             * Sync all processes here (included the winner process) to avoid
-             * the winner process exiting before the others.
-             */
-            sync();
+            for (int g = 0; g < games; g++) {
+                if (!isFinished(finished, g)) {
+                    selectedPositions[g] = players[g].selectCard();
+                    sentCards.put(active++, players[g].card(selectedPositions[g]));
+                }
+            }
 
-            if (gameOver) {
-                debugPrint("Process %d exiting\n", RANKS.self);
+            if (active == 0) {
                 break;
-                // Only the winner process exits here, since it is the only one that has game_over = true.
             }
 
-            // Expect any tag and check the one received after
-            do {
-                status = MPI.COMM_WORLD.iProbe(MPI.ANY_SOURCE, MPI.ANY_TAG);
-                receivedMessageFlag = status.getCount(MPI.INT);
-            } while (receivedMessageFlag == 0);
+            COMM.sendRecv(sentCards, active, MPI.INT, RANKS.next, BATCH_TAG,
+                          receivedCards, active, MPI.INT, RANKS.prev, BATCH_TAG);
 
-            if (status.getTag() == GAME_ENDED_TAG) {
-                // Not really needed, but it is better to be safe
-                IntBuffer receivedInt = MPI.newIntBuffer(1);
-                recvRequest = MPI.COMM_WORLD.iRecv(receivedInt, 1, MPI.INT, status.getSource(), GAME_ENDED_TAG);
-                recvRequest.waitFor();
-                receivedCard = receivedInt.get(0);
+            // Unpack the received cards in the same order
+            for (int g = 0, k = 0; g < games; g++) {
+                if (!isFinished(finished, g)) {
+                    players[g].replaceCard(selectedPositions[g], receivedCards.get(k++));
+                }
+            }
 
-                debugPrint(
-                        "P%d (I%d): Exiting. Received end game message from P%d\n",
-                        RANKS.self, round++, status.getSource()
-                );
+            round++;
+        }
 
-                gameOver = true;
-                // Exit the loop
-            } else if (status.getTag() == GAME_NOT_ENDED_TAG) {
-                IntBuffer receivedInt = MPI.newIntBuffer(1);
-                recvRequest = MPI.COMM_WORLD.iRecv(receivedInt, 1, MPI.INT, RANKS.prev, GAME_NOT_ENDED_TAG);
-                recvRequest.waitFor();
-                receivedCard = receivedInt.get(0);
+        double elapsed = MPI.wtime() - start;
+        int[] winsBySeat = new int[N];
+        int[] seats = new int[games];
+        int[] winners = new int[games];
 
-                String handString = handToString(hand);
+        // The winner of a game is the lowest rank that completed its hand, or N if nobody did
+        for (int g = 0; g < games; g++) {
+            seats[g] = isFinished(completed, g) ? RANKS.self : N;
+        }
 
-                // Store the received card in the hand
-                hand[selection.pos] = receivedCard;
+        COMM.reduce(seats, winners, games, MPI.INT, MPI.MIN, 0);
 
-                debugPrint(
-                        "P%d (I%d): Sent %d to P%d. Recv %d from P%d. Hand: %s -> %s\n",
-                        RANKS.self, round++, selection.card, RANKS.next,
-                        receivedCard, RANKS.prev, handString, handToString(hand)
-                );
+        BufferPool.SHARED.release(sentCards);
+        BufferPool.SHARED.release(receivedCards);
+
+        if (RANKS.self == 0) {
+            int finishedGames = 0;
+
+            for (long word : finished) {
+                finishedGames += Long.bitCount(word);
             }
-        } while (!gameOver);
+
+            for (int winner : winners) {
+                if (winner < N) {
+                    winsBySeat[winner]++;
+                }
+            }
+
+            System.out.print(String.format("Games: %d, finished: %d, draws: %d, rounds: %d, time: %f, games/s: %.1f\n",
+                                           games, finishedGames, games - finishedGames, round, elapsed,
+                                           games / elapsed));
+
+            for (int seat = 0; seat < N; seat++) {
+                System.out.print(String.format("Seat %d: %d wins (%.1f%%)\n", seat, winsBySeat[seat],
+                                               100.0 * winsBySeat[seat] / Math.max(1, finishedGames)));
+            }
+        }
+    }
+
+    private static boolean isFinished(long[] finished, int game) {
+        return (finished[game / Long.SIZE] & (1L << game)) != 0;
     }
 
-    public static void main(String[] args) throws MPIException {
+    public static void main(String[] args) throws MPIException, IOException {
         MPI.Init(args);
 
-        int rank = MPI.COMM_WORLD.getRank();
-        int size = MPI.COMM_WORLD.getSize();
+        Arguments arguments = Arguments.parse(args);
+        COMM = new ProfiledComm(MPI.COMM_WORLD, arguments);
+
+        int rank = COMM.getRank();
+        int size = COMM.getSize();
+
+        final String engine = arguments.getString("engine", "barrier");
+
+        // Without the per-round messages, the game loops do not allocate
+        DEBUG = !arguments.getBoolean("quiet");
 
         RANDOM.setSeed(System.currentTimeMillis() + rank * 2);
 
@@ -276,13 +482,20 @@ public class Burro {
                 (rank + 1) % N
         );
 
-        Burro burro = new Burro();
+        Burro burro = new Burro(CardSelectionStrategy.byName(arguments.getString("strategy", "least-frequent")));
+
+        if (engine.equals("batch")) {
+            burro.batch(arguments.getInt("games", NUM_GAMES), arguments.getInt("max-rounds", MAX_ROUNDS));
+            COMM.report();
+            MPI.Finalize();
+            return;
+        }
 
         int[] hand = new int[HAND_SIZE];
         int[] deck = new int[DECK_SIZE];
 
         if (rank == 0) {
-            burro.initializeDeck(deck);
+            BurroPlayer.deal(deck, N, RANDOM);
 
             debugPerform(() -> {
                 for (int i = 0; i < DECK_SIZE; i++) {
@@ -294,13 +507,43 @@ public class Burro {
         }
 
         // Scatter the deck to all processes
-        MPI.COMM_WORLD.scatter(deck, HAND_SIZE, MPI.INT, hand, HAND_SIZE, MPI.INT, 0);
+        COMM.scatter(deck, HAND_SIZE, MPI.INT, hand, HAND_SIZE, MPI.INT, 0);
+
+        // Start the game. The bytes allocated by this thread show whether the game loop allocates.
+        final ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        double start = MPI.wtime();
+        int rounds = switch (engine) {
+            case "barrier" -> burro.game(hand);
+            case "event" -> burro.eventGame(hand);
+            default -> throw new IllegalArgumentException("Unknown engine: " + engine);
+        };
+        double gameTime = MPI.wtime() - start;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        double[] elapsed = new double[1];
+        int[] maxRounds = new int[1];
+        long[] maxAllocated = new long[1];
+
+        COMM.reduce(new int[] { rounds }, maxRounds, 1, MPI.INT, MPI.MAX, 0);
+        COMM.reduce(new double[] { gameTime }, elapsed, 1, MPI.DOUBLE, MPI.MAX, 0);
+        COMM.reduce(new long[] { allocated }, maxAllocated, 1, MPI.LONG, MPI.MAX, 0);
 
-        // Start the game
-        burro.game(hand);
+        if (rank == 0) {
+            // The latency and allocation per round are the ones to compare between engines and versions
+            final int measuredRounds = Math.max(1, maxRounds[0]);
+
+            System.out.print(String.format("Engine: %s, processes: %d, rounds: %d, time: %f, rounds/s: %.1f\n",
+                                           engine, size, maxRounds[0], elapsed[0], maxRounds[0] / elapsed[0]));
+            System.out.print(String.format("Round latency: %.2f us, allocated per round: %d bytes (slowest process)\n",
+                                           elapsed[0] * 1e6 / measuredRounds, maxAllocated[0] / measuredRounds));
+        }
 
         // Terminate the program
-        burro.sync(); // Wait for all processes to finish
+        if (engine.equals("barrier")) {
+            burro.sync(); // Wait for all processes to finish
+        }
+
+        COMM.report();
         MPI.Finalize();
     }
 }
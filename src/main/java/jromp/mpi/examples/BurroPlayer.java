@@ -0,0 +1,98 @@
+package jromp.mpi.examples;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * A player of Burro: a hand of {@value #HAND_SIZE} cards, the strategy used to pass cards and its selection state.
+ * <p>
+ * The hand is a view of {@code HAND_SIZE} elements of an array, so the hands of many games (or players) can be kept
+ * in a single array. The rules do not depend on how the cards move between players, so the same players are used by
+ * the MPI engines of {@link Burro} and by the in-process {@link BurroSimulator}.
+ */
+public final class BurroPlayer {
+    public static final int HAND_SIZE = 4;
+
+    private final int[] hands;
+    private final int offset;
+    private final CardSelectionStrategy strategy;
+    private final CardSelectionStrategy.State state = new CardSelectionStrategy.State();
+    private final RandomGenerator random;
+
+    /**
+     * @param hands  the array that holds the hand.
+     * @param offset the position of the first card of the hand in the array.
+     */
+    public BurroPlayer(int[] hands, int offset, CardSelectionStrategy strategy, RandomGenerator random) {
+        this.hands = hands;
+        this.offset = offset;
+        this.strategy = strategy;
+        this.random = random;
+    }
+
+    /**
+     * @return whether the four cards of the hand are equal.
+     */
+    public boolean hasFullHand() {
+        final int firstCard = hands[offset];
+
+        for (int i = 1; i < HAND_SIZE; i++) {
+            if (hands[offset + i] != firstCard) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * @return the position of the card to pass to the next player.
+     */
+    public int selectCard() {
+        return strategy.select(hands, offset, state, random);
+    }
+
+    public int card(int position) {
+        return hands[offset + position];
+    }
+
+    /**
+     * Puts the card received from the previous player in the position of the card that was passed.
+     */
+    public void replaceCard(int position, int card) {
+        hands[offset + position] = card;
+    }
+
+    public String handToString() {
+        StringBuilder sb = new StringBuilder();
+
+        for (int i = 0; i < HAND_SIZE; i++) {
+            sb.append(hands[offset + i]);
+
+            if (i < HAND_SIZE - 1) {
+                sb.append(" ");
+            }
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Fills the deck of a game of {@code players} players: {@value #HAND_SIZE} cards of each number in
+     * {@code [0, players)}, in random order. The hand of player {@code p} is {@code deck[p * HAND_SIZE, (p + 1) *
+     * HAND_SIZE)}.
+     */
+    public static void deal(int[] deck, int players, RandomGenerator random) {
+        int[] numbersCount = new int[players];
+
+        for (int i = 0; i < players * HAND_SIZE; i++) {
+            int index = random.nextInt(players);
+
+            while (numbersCount[index] >= HAND_SIZE) {
+                index = random.nextInt(players);
+            }
+
+            deck[i] = index;
+            numbersCount[index]++;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package jromp.mpi.examples;
+
+import jromp.parallel.Parallel;
+
+import java.util.SplittableRandom;
+
+import static jromp.mpi.examples.BurroPlayer.HAND_SIZE;
+import static jromp.mpi.examples.Utils.printf;
+
+/**
+ * Plays many games of Burro inside a single JVM, without MPI, to compare the card selection strategies.
+ * <p>
+ * The games are split among JROMP threads, and each thread plays its games one after another with its own
+ * {@link SplittableRandom}. A game follows the rules of the batch engine of {@link Burro}: at the start of every round
+ * the players with a full hand win and the game ends, and otherwise every player passes the selected card to the next
+ * one. The whole ring of a game lives in one thread, so the exchange is a rotation of the selected cards with no
+ * synchronization at all.
+ */
+@SuppressWarnings("all")
+public class BurroSimulator {
+    private static final int NUM_GAMES = 1_000_000;
+    private static final int NUM_PLAYERS = 6;
+    private static final int NUM_THREADS = 4;
+    private static final int MAX_ROUNDS = 10000;
+
+    public static void main(String[] args) {
+        Arguments arguments = Arguments.parse(args);
+        final int games = arguments.getInt("games", NUM_GAMES);
+        final int players = arguments.getInt("players", NUM_PLAYERS);
+        final int numThreads = arguments.getInt("threads", NUM_THREADS);
+        final int maxRounds = arguments.getInt("max-rounds", MAX_ROUNDS);
+        final long seed = arguments.getLong("seed", System.currentTimeMillis());
+        final String strategyName = arguments.getString("strategy", "all");
+
+        CardSelectionStrategy[] strategies = strategyName.equals("all")
+                                             ? CardSelectionStrategy.values()
+                                             : new CardSelectionStrategy[] {
+                                                     CardSelectionStrategy.byName(strategyName)
+                                             };
+
+        printf("Games: %d, players: %d, threads: %d, seed: %d\n", games, players, numThreads, seed);
+
+        for (CardSelectionStrategy strategy : strategies) {
+            simulate(strategy, games, players, numThreads, maxRounds, seed);
+        }
+    }
+
+    /**
+     * Plays the games with the given strategy and prints the throughput and the results.
+     */
+    static void simulate(CardSelectionStrategy strategy, int games, int players, int numThreads, int maxRounds,
+                         long seed) {
+        // Every thread counts its wins in its own row, and the rounds and draws in the last two columns
+        final long[][] results = new long[numThreads][players + 2];
+        final int roundsColumn = players;
+        final int drawsColumn = players + 1;
+
+        long start = System.nanoTime();
+
+        Parallel.withThreads(numThreads)
+                .parallelFor(0, games, false, (id, startGame, endGame, vars) -> {
+                    final SplittableRandom random = new SplittableRandom(seed + startGame * 0x9E3779B97F4A7C15L);
+                    final int[] hands = new int[players * HAND_SIZE];
+                    final int[] positions = new int[players];
+                    final int[] cards = new int[players];
+                    final BurroPlayer[] seats = new BurroPlayer[players];
+                    final long[] counts = new long[players + 2];
+
+                    for (int g = startGame; g < endGame; g++) {
+                        BurroPlayer.deal(hands, players, random);
+
+                        for (int p = 0; p < players; p++) {
+                            seats[p] = new BurroPlayer(hands, p * HAND_SIZE, strategy, random);
+                        }
+
+                        int rounds = play(seats, positions, cards, maxRounds, counts);
+
+                        if (rounds < 0) {
+                            counts[drawsColumn]++;
+                            counts[roundsColumn] += maxRounds;
+                        } else {
+                            counts[roundsColumn] += rounds;
+                        }
+                    }
+
+                    for (int i = 0; i < counts.length; i++) {
+                        results[id][i] += counts[i];
+                    }
+                })
+                .join();
+
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        long[] totals = new long[players + 2];
+
+        for (long[] threadResults : results) {
+            for (int i = 0; i < totals.length; i++) {
+                totals[i] += threadResults[i];
+            }
+        }
+
+        long finished = games - totals[drawsColumn];
+
+        printf("Strategy: %s, time: %f, games/s: %.1f, games/min: %.0f\n",
+               strategy, elapsed, games / elapsed, 60 * games / elapsed);
+        printf("Finished: %d, draws: %d, mean rounds: %.2f\n",
+               finished, totals[drawsColumn], (double) totals[roundsColumn] / games);
+
+        for (int seat = 0; seat < players; seat++) {
+            printf("Seat %d: %d wins (%.2f%%)\n", seat, totals[seat], 100.0 * totals[seat] / Math.max(1, finished));
+        }
+    }
+
+    /**
+     * Plays one game, adding a win to the counter of the winning seat. If several seats complete their hands in the
+     * same round, the win goes to the lowest one, as in the batch engine of {@link Burro}.
+     *
+     * @return the number of rounds played, or {@code -1} if nobody won in {@code maxRounds} rounds.
+     */
+    static int play(BurroPlayer[] seats, int[] positions, int[] cards, int maxRounds, long[] wins) {
+        final int players = seats.length;
+
+        for (int round = 0; round < maxRounds; round++) {
+            for (int p = 0; p < players; p++) {
+                if (seats[p].hasFullHand()) {
+                    wins[p]++;
+                    return round;
+                }
+            }
+
+            for (int p = 0; p < players; p++) {
+                positions[p] = seats[p].selectCard();
+                cards[p] = seats[p].card(positions[p]);
+            }
+
+            // Every player receives the card of the previous one in the position of the card it passed
+            for (int p = 0; p < players; p++) {
+                int next = (p + 1) % players;
+                seats[next].replaceCard(positions[next], cards[p]);
+            }
+        }
+
+        return -1;
+    }
+}
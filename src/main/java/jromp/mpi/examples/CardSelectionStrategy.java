@@ -0,0 +1,99 @@
+package jromp.mpi.examples;
+
+import java.util.Locale;
+import java.util.random.RandomGenerator;
+
+import static jromp.mpi.examples.BurroPlayer.HAND_SIZE;
+
+/**
+ * Ways of choosing the card a Burro player passes to the next player.
+ */
+public enum CardSelectionStrategy {
+    /**
+     * Passes a random card.
+     */
+    SIMPLE {
+        @Override
+        int select(int[] hands, int offset, State state, RandomGenerator random) {
+            return random.nextInt(HAND_SIZE);
+        }
+    },
+
+    /**
+     * Passes the least frequent card of the hand. After {@value #SAME_CARD_SELECTION_LIMIT} selections, if the card
+     * is the same as the previous one, a different random card is passed instead, so two players cannot pass the same
+     * card to each other forever.
+     */
+    LEAST_FREQUENT {
+        @Override
+        int select(int[] hands, int offset, State state, RandomGenerator random) {
+            // The counts are kept in the state, so a selection does not allocate
+            final int[] numbersCount = state.numbersCount;
+
+            for (int i = 0; i < HAND_SIZE; i++) {
+                numbersCount[i] = 0;
+
+                for (int j = 0; j < HAND_SIZE; j++) {
+                    if (hands[offset + i] == hands[offset + j]) {
+                        numbersCount[i]++;
+                    }
+                }
+            }
+
+            int selectedPos = 0;
+            int selectedCard = hands[offset + selectedPos];
+
+            for (int i = 1; i < HAND_SIZE; i++) {
+                if (numbersCount[i] < numbersCount[selectedPos]) {
+                    selectedPos = i;
+                    selectedCard = hands[offset + selectedPos]; // This is the least frequent card
+                }
+            }
+
+            // If the selected card is the same as the previous one, select another random card.
+            state.limit--;
+            if (selectedCard == state.previousCard && state.limit == 0) {
+                do {
+                    selectedPos = random.nextInt(HAND_SIZE);
+                } while (hands[offset + selectedPos] == state.previousCard); // Prevent selecting the same card
+
+                selectedCard = hands[offset + selectedPos]; // Update the selected card if needed
+                state.limit = SAME_CARD_SELECTION_LIMIT;
+            }
+
+            state.previousCard = selectedCard; // Update the previous selected card
+
+            return selectedPos;
+        }
+    };
+
+    static final int SAME_CARD_SELECTION_LIMIT = 10;
+
+    /**
+     * Selection state of a player in a game.
+     */
+    public static final class State {
+        private int limit = SAME_CARD_SELECTION_LIMIT;
+        private int previousCard = -1;
+        private final int[] numbersCount = new int[HAND_SIZE];
+    }
+
+    /**
+     * Selects a card of the hand stored in {@code hands[offset, offset + HAND_SIZE)}.
+     *
+     * @return the position of the selected card, relative to {@code offset}.
+     */
+    abstract int select(int[] hands, int offset, State state, RandomGenerator random);
+
+    /**
+     * @return the strategy with the given name, in lower case and with dashes instead of underscores.
+     */
+    public static CardSelectionStrategy byName(String name) {
+        return valueOf(name.toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+
+    @Override
+    public String toString() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+}
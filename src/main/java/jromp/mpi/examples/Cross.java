@@ -1,40 +1,60 @@
 package jromp.mpi.examples;
 
+import jromp.parallel.Parallel;
 import mpi.Datatype;
 import mpi.MPI;
 import mpi.MPIException;
 
-import java.nio.ByteBuffer;
+import java.io.IOException;
 import java.nio.IntBuffer;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Random;
 
 @SuppressWarnings("all")
 public class Cross {
     private static final Random RANDOM = new Random();
-    private static final int N = 20000;
-    private static final int NO_VALUE = -1;
+    private static final int DEFAULT_N = 20000;
+    private static final int MAX_VALUE = 10;
+    private static final int NUM_THREADS = 4;
+    private static final int MAX_PRINTED_CELLS = 100;
+    private static final int DISTRIBUTE = 0;
+    private static final int SUM = 1;
+    private static final int TOTAL = 2;
+    private static final String[] PHASE_NAMES = { "distribute", "sum", "total" };
+
+    /**
+     * Largest matrix that fits in one direct buffer: the bindings compute its size in bytes in an int.
+     */
+    static final int MAX_MATRIX_ELEMENTS = Integer.MAX_VALUE / Integer.BYTES;
+
+    /**
+     * Order of the matrix, {@code --n}.
+     */
+    private static int N;
+
+    private static ProfiledComm COMM;
 
     static final class CrossLimits {
         /**
          * Vertical left limit
          */
-        private int v_i;
+        int v_i;
 
         /**
          * Vertical right limit
          */
-        private int v_j;
+        int v_j;
 
         /**
          * Horizontal top limit
          */
-        private int h_k;
+        int h_k;
 
         /**
          * Horizontal bottom limit
          */
-        private int h_t;
+        int h_t;
 
         CrossLimits() {
             this(0, 0, 0, 0);
@@ -48,222 +68,438 @@ public class Cross {
         }
     }
 
-    void print_matrix(int[] matrix, int rowSize) {
-        for (int i = 0; i < rowSize; i++) {
-            for (int j = 0; j < rowSize; j++) {
-                System.out.print(String.format("%d ", matrix[i * rowSize + j]));
+    static void print_matrix(IntBuffer matrix, int rowSize, MatrixRenderer.Viewport viewport) throws IOException {
+        MatrixRenderer.stdout().renderMatrix(matrix, rowSize, viewport);
+    }
+
+    static void initialize_matrix(IntBuffer matrix, int size, MatrixGenerator generator, int numThreads) {
+        generator.parallelFillInts(matrix, 0, 0, size, MAX_VALUE, numThreads);
+    }
+
+    /**
+     * @return the number of elements of the cross of a matrix of order {@code n}, which is at most {@code n * n}.
+     */
+    static int cross_elements(int n, CrossLimits limits) {
+        return (limits.v_j - limits.v_i + 1) * limits.h_k // Upper block
+                + n * (limits.h_t - limits.h_k + 1) // Middle block
+                + (limits.v_j - limits.v_i + 1) * (n - limits.h_t - 1); // Lower block
+    }
+
+    /**
+     * Generates the elements {@code [from, from + count)} of the cross, in the layout of the packed cross (the rows of
+     * the upper block, the middle block and the rows of the lower block), into {@code cross[offset, offset + count)}.
+     * The values are the same that the root process would generate in the full matrix with the same generator.
+     */
+    static void generate_cross(IntBuffer cross, int offset, CrossLimits limits, MatrixGenerator generator, int from,
+                               int count, int numThreads) {
+        Parallel.withThreads(numThreads)
+                .parallelFor(0, count, false, (id, start, end, vars) -> {
+                    generate_cross_segment(cross, offset + start, limits, generator, from + start, end - start);
+                })
+                .join();
+    }
+
+    /**
+     * Sequential version of {@link #generate_cross}, which generates the segment one row segment at a time.
+     */
+    static void generate_cross_segment(IntBuffer cross, int offset, CrossLimits limits, MatrixGenerator generator,
+                                       int from, int count) {
+        final int width = limits.v_j - limits.v_i + 1;
+        final int middle_offset = width * limits.h_k;
+        final int lower_offset = middle_offset + N * (limits.h_t - limits.h_k + 1);
+        final int end = from + count;
+        int element = from;
+        int position = offset;
+
+        while (element < end) {
+            long first;
+            int length;
+
+            if (element < middle_offset) {
+                // Upper block
+                first = (long) (element / width) * N + limits.v_i + element % width;
+                length = width - element % width;
+            } else if (element < lower_offset) {
+                // Middle block
+                first = (long) limits.h_k * N + (element - middle_offset);
+                length = lower_offset - element;
+            } else {
+                // Lower block
+                int lower_element = element - lower_offset;
+                first = (long) (limits.h_t + 1 + lower_element / width) * N + limits.v_i + lower_element % width;
+                length = width - lower_element % width;
             }
 
-            System.out.println();
+            length = Math.min(length, end - element);
+            generator.fillInts(cross, position, first, length, MAX_VALUE);
+
+            element += length;
+            position += length;
         }
+    }
 
-        System.out.println();
+    /**
+     * Sums the first {@code count} elements of the buffer with JROMP threads, in 64 bits.
+     */
+    static long parallel_sum(IntBuffer buffer, int count, int numThreads) {
+        final long[] partial_sums = new long[numThreads];
+
+        Parallel.withThreads(numThreads)
+                .parallelFor(0, count, false, (id, start, end, vars) -> {
+                    partial_sums[id] += Simd.longSum(buffer, start, end);
+                })
+                .join();
+
+        return Arrays.stream(partial_sums).sum();
     }
 
-    static void initialize_matrix(int[] matrix, int size) {
-        for (int i = 0; i < size; i++) {
-            matrix[i] = RANDOM.nextInt(10);
-        }
+    /**
+     * Packs the elements of the cross of the matrix contiguously into the payload, sending the matrix with the cross
+     * datatype to the calling process itself.
+     */
+    static void pack_cross(IntBuffer matrix, CrossLimits limits, IntBuffer payload, int cross_elements)
+            throws MPIException {
+        Datatype cross_type = RegionDatatypes.SHARED.cross(N, limits.v_i, limits.v_j, limits.h_k, limits.h_t,
+                                                           MPI.INT);
+
+        MPI.COMM_SELF.sendRecv(matrix, 1, cross_type, 0, 0, payload, cross_elements, MPI.INT, 0, 0);
     }
 
-    static CrossLimits generate_limits() {
+    /**
+     * Generates the limits of a cross in a matrix of order {@code n}, which must be at least 2.
+     */
+    static CrossLimits generate_limits(int n, Random random) {
         CrossLimits limits = new CrossLimits();
 
         // i < j and k < t (strictly). If not met, generate another second limits
         do {
-            limits.v_i = RANDOM.nextInt(N);
-            limits.v_j = limits.v_i + RANDOM.nextInt(N - limits.v_i);
-            limits.h_k = RANDOM.nextInt(N);
-            limits.h_t = limits.h_k + RANDOM.nextInt(N - limits.h_k);
+            limits.v_i = random.nextInt(n);
+            limits.v_j = limits.v_i + random.nextInt(n - limits.v_i);
+            limits.h_k = random.nextInt(n);
+            limits.h_t = limits.h_k + random.nextInt(n - limits.h_k);
         } while (limits.v_i >= limits.v_j || limits.h_k >= limits.h_t);
 
         return limits;
     }
 
-    static void print_cross(int[] matrix, CrossLimits limits) {
-        // Create a new matrix with -1 values and fill the cross with the original values
-        int[] cross = new int[N * N];
-        Arrays.fill(cross, NO_VALUE);
+    static void print_cross(IntBuffer matrix, CrossLimits limits, MatrixRenderer.Viewport viewport)
+            throws IOException {
+        MatrixRenderer.stdout().renderCross(matrix, N, limits.v_i, limits.v_j, limits.h_k, limits.h_t, viewport);
+    }
 
-        // Upper block of the cross
-        for (int i = 0; i < limits.h_k; i++) {
-            for (int j = limits.v_i; j <= limits.v_j; j++) {
-                cross[i * N + j] = matrix[i * N + j];
-            }
+    /**
+     * @return the part of the matrix printed with {@code --print}: the whole matrix sampled to at most
+     *         {@value #MAX_PRINTED_CELLS} rows and columns, or the rectangle given with
+     *         {@code --viewport=firstRow,firstCol,rows,cols} and {@code --stride}. {@code null} if nothing is printed.
+     */
+    static MatrixRenderer.Viewport viewport(Arguments arguments) {
+        if (!arguments.getBoolean("print")) {
+            return null;
         }
 
-        // Middle block of the cross
-        for (int i = limits.h_k; i <= limits.h_t; i++) {
-            for (int j = 0; j < N; j++) {
-                cross[i * N + j] = matrix[i * N + j];
-            }
+        if (!arguments.has("viewport")) {
+            return MatrixRenderer.Viewport.fit(N, MAX_PRINTED_CELLS);
+        }
+
+        int[] rectangle = arguments.getIntList("viewport", 0, 0, N, N);
+
+        if (rectangle.length != 4) {
+            throw new IllegalArgumentException("The viewport must be firstRow,firstCol,rows,cols");
         }
 
-        // Lower block of the cross
-        for (int i = limits.h_t + 1; i < N; i++) {
-            for (int j = limits.v_i; j <= limits.v_j; j++) {
-                cross[i * N + j] = matrix[i * N + j];
+        return new MatrixRenderer.Viewport(rectangle[0], rectangle[1], rectangle[2], rectangle[3],
+                                           arguments.getInt("stride", 1));
+    }
+
+    /**
+     * Sends the whole cross to every worker, which sums all of it.
+     * <p>
+     * Every process holds the elements of the cross contiguously: the root packs them once from the matrix, and the
+     * workers receive them with a single broadcast (or generate them).
+     *
+     * @param times the distribution and summation times of the calling process are stored here.
+     */
+    static void replicated(int rank, int size, IntBuffer matrix, CrossLimits limits, int cross_elements,
+                           MatrixGenerator generator, boolean distributedInit, int numThreads, double start,
+                           double[] times) throws MPIException {
+        // The root only needs the cross to pack it, since it does not sum it
+        IntBuffer cross_buffer = rank != 0 || !distributedInit ? BufferPool.SHARED.ints(cross_elements) : null;
+
+        if (distributedInit) {
+            if (rank != 0) {
+                double generation_start = MPI.wtime();
+                generate_cross(cross_buffer, 0, limits, generator, 0, cross_elements, numThreads);
+                System.out.print(String.format("Cross generation time (process %d): %f\n",
+                                               rank, MPI.wtime() - generation_start));
+            }
+        } else {
+            if (rank == 0) {
+                pack_cross(matrix, limits, cross_buffer, cross_elements);
+                System.out.print(String.format("Cross packing time: %f\n", MPI.wtime() - start));
             }
+
+            COMM.bcast(cross_buffer, cross_elements, MPI.INT, 0);
         }
 
-        // Print the cross
-        for (int i = 0; i < N; i++) {
-            for (int j = 0; j < N; j++) {
-                if (cross[i * N + j] == NO_VALUE) {
-                    System.out.print("  ");
-                } else {
-                    System.out.print(String.format("%d ", cross[i * N + j]));
+        times[DISTRIBUTE] = MPI.wtime() - start;
+
+        sum_replicated(rank, size, cross_buffer, cross_elements, start, times);
+
+        if (cross_buffer != null) {
+            BufferPool.SHARED.release(cross_buffer);
+        }
+    }
+
+    /**
+     * Like {@link #replicated}, but the processes of every node share one copy of the cross: the root packs it into
+     * the cross of its node and broadcasts it to the leaders of the other nodes only, and the workers sum it in place.
+     * With {@code --distributed-init} the leader of every node generates it.
+     *
+     * @param cross_buffer the cross shared by the node of the calling process, see {@link SharedNode#allocate}.
+     * @param times        the distribution and summation times of the calling process are stored here.
+     */
+    static void shared(int rank, int size, SharedNode node, IntBuffer cross_buffer, IntBuffer matrix,
+                       CrossLimits limits, int cross_elements, MatrixGenerator generator, boolean distributedInit,
+                       int numThreads, double start, double[] times) throws MPIException {
+        if (node.isLeader()) {
+            if (distributedInit) {
+                generate_cross(cross_buffer, 0, limits, generator, 0, cross_elements, numThreads);
+            } else {
+                if (rank == 0) {
+                    pack_cross(matrix, limits, cross_buffer, cross_elements);
+                    System.out.print(String.format("Cross packing time: %f\n", MPI.wtime() - start));
                 }
-            }
 
-            System.out.print("\n");
+                node.leaders().bcast(cross_buffer, cross_elements, MPI.INT, 0);
+            }
         }
+
+        // The workers read the cross once the leader of their node has it
+        node.barrier();
+
+        times[DISTRIBUTE] = MPI.wtime() - start;
+
+        sum_replicated(rank, size, cross_buffer, cross_elements, start, times);
     }
 
-    private static ByteBuffer intArrayToByteBuffer(int[] array) {
-        ByteBuffer buffer = MPI.newByteBuffer(array.length * Integer.BYTES);
+    /**
+     * Sums the whole cross in every worker and prints the sums in the root process.
+     */
+    private static void sum_replicated(int rank, int size, IntBuffer cross_buffer, int cross_elements, double start,
+                                       double[] times) throws MPIException {
+        if (rank == 0) {
+            System.out.print(String.format("Distribution time: %f\n", times[DISTRIBUTE]));
 
-        for (int i = 0; i < array.length; i++) {
-            buffer.putInt(array[i]);
+            // Receive all the sums
+            for (int i = 1; i < size; i++) {
+                long[] sum = new long[1];
+                COMM.recv(sum, 1, MPI.LONG, i, 0);
+                System.out.print(String.format("Sum (process %d): %d\n", i, sum[0]));
+            }
+
+            System.out.print(String.format("Total time: %f\n", MPI.wtime() - start));
+        } else {
+            // Sum the elements
+            long sum = Simd.longSum(cross_buffer, 0, cross_elements);
+
+            // Send the sum to the master
+            COMM.send(new long[] { sum }, 1, MPI.LONG, 0, 0);
         }
 
-        return buffer;
+        times[SUM] = MPI.wtime() - start - times[DISTRIBUTE];
     }
 
-    public static void main(String[] args) throws MPIException {
-        MPI.Init(args);
+    /**
+     * Splits the packed cross evenly among all the processes, which sum their share with JROMP threads. The partial
+     * sums are reduced in 64 bits, so large crosses do not overflow.
+     *
+     * @param times the distribution and summation times of the calling process are stored here.
+     */
+    static void partitioned(int rank, int size, IntBuffer matrix, CrossLimits limits, int cross_elements,
+                            MatrixGenerator generator, boolean distributedInit, int numThreads, double start,
+                            double[] times) throws MPIException {
+        final int[] counts = Utils.blockSizes(cross_elements, size);
+        final int[] displacements = Utils.displacements(counts);
+        IntBuffer cross_buffer = rank == 0 && !distributedInit ? BufferPool.SHARED.ints(cross_elements) : null;
+        IntBuffer segment_buffer = BufferPool.SHARED.ints(counts[rank]);
+
+        if (distributedInit) {
+            generate_cross(segment_buffer, 0, limits, generator, displacements[rank], counts[rank], numThreads);
+        } else {
+            if (rank == 0) {
+                pack_cross(matrix, limits, cross_buffer, cross_elements);
+                System.out.print(String.format("Cross packing time: %f\n", MPI.wtime() - start));
+            }
 
-        int rank = MPI.COMM_WORLD.getRank();
-        int size = MPI.COMM_WORLD.getSize();
+            COMM.scatterv(cross_buffer, counts, displacements, MPI.INT,
+                          segment_buffer, counts[rank], MPI.INT, 0);
+        }
 
-        RANDOM.setSeed(System.currentTimeMillis() + rank * 2);
+        times[DISTRIBUTE] = MPI.wtime() - start;
 
-        byte[] buffer = new byte[4 * Integer.BYTES];
-        CrossLimits limits = new CrossLimits();
-        final int limit_size = 4;
-        int position = 0;
+        if (rank == 0) {
+            System.out.print(String.format("Distribution time: %f\n", times[DISTRIBUTE]));
+        }
+
+        long[] sum = { parallel_sum(segment_buffer, counts[rank], numThreads) };
+        long[] total = new long[1];
+
+        COMM.reduce(sum, total, 1, MPI.LONG, MPI.SUM, 0);
 
         if (rank == 0) {
-            int[] matrix = new int[N * N];
-            Arrays.fill(matrix, NO_VALUE);
+            System.out.print(String.format("Sum: %d\n", total[0]));
+            System.out.print(String.format("Total time: %f\n", MPI.wtime() - start));
+        }
 
-            limits = generate_limits();
-            System.out.print(String.format("Limits: v_i:%d   v_j:%d   h_k:%d   h_t:%d\n",
-                                           limits.v_i, limits.v_j, limits.h_k, limits.h_t));
+        times[SUM] = MPI.wtime() - start - times[DISTRIBUTE];
 
-            double start = MPI.wtime();
-            initialize_matrix(matrix, N * N);
-            double end = MPI.wtime();
-            System.out.print(String.format("Matrix initialization time: %f\n", end - start));
+        if (cross_buffer != null) {
+            BufferPool.SHARED.release(cross_buffer);
+        }
 
-            // print_matrix(matrix, N);
-            position = 0;
-            position = MPI.COMM_WORLD.pack(new int[] { limits.v_i }, 1, MPI.INT, buffer, position);
-            position = MPI.COMM_WORLD.pack(new int[] { limits.v_j }, 1, MPI.INT, buffer, position);
-            position = MPI.COMM_WORLD.pack(new int[] { limits.h_k }, 1, MPI.INT, buffer, position);
-            position = MPI.COMM_WORLD.pack(new int[] { limits.h_t }, 1, MPI.INT, buffer, position);
+        BufferPool.SHARED.release(segment_buffer);
+    }
 
-            start = MPI.wtime();
+    public static void main(String[] args) throws MPIException, IOException {
+        MPI.Init(args);
 
-            // Send the limits to all the processes
-            for (int i = 1; i < size; i++) {
-                MPI.COMM_WORLD.send(buffer, 4, MPI.INT, i, 0);
-            }
+        Arguments arguments = Arguments.parse(args);
+        COMM = new ProfiledComm(MPI.COMM_WORLD, arguments);
 
-            // Create the cross datatype
-            int num_elements = 0;
-            Datatype cross_type;
-            int counter = 0;
-            final int num_blocks =
-                    limits.h_k // Upper block
-                            + 1 // Middle block
-                            + (N - limits.h_t - 1); // Lower block
-
-            int[] array_of_block_lengths = new int[num_blocks];
-            int[] array_of_displacements = new int[num_blocks];
-
-            // Upper block
-            for (int i = 0; i < limits.h_k; i++) {
-                array_of_block_lengths[counter] = limits.v_j - limits.v_i + 1;
-                array_of_displacements[counter] = i * N + limits.v_i;
-                num_elements += array_of_block_lengths[counter];
-                counter++;
-            }
+        int rank = COMM.getRank();
+        int size = COMM.getSize();
 
-            // Middle block
-            array_of_block_lengths[counter] = N * (limits.h_t - limits.h_k + 1);
-            array_of_displacements[counter] = limits.h_k * N;
-            num_elements += array_of_block_lengths[counter];
-            counter++;
-
-            // Lower block
-            for (int i = limits.h_t + 1; i < N; i++) {
-                array_of_block_lengths[counter] = limits.v_j - limits.v_i + 1;
-                array_of_displacements[counter] = i * N + limits.v_i;
-                num_elements += array_of_block_lengths[counter];
-                counter++;
-            }
+        N = arguments.getInt("n", DEFAULT_N);
+
+        // Every mode holds the whole matrix, in the root or in the shared memory of a node
+        if (N < 2 || (long) N * N > MAX_MATRIX_ELEMENTS) {
+            throw new IllegalArgumentException("Cross supports 2 <= n <= " + (int) Math.sqrt(MAX_MATRIX_ELEMENTS)
+                                               + ", not " + N);
+        }
 
-            cross_type = Datatype.createIndexed(array_of_block_lengths, array_of_displacements, MPI.INT);
-            cross_type.commit();
+        final int numThreads = arguments.getInt("threads", NUM_THREADS);
+        final boolean distributedInit = arguments.getBoolean("distributed-init");
+        final String mode = arguments.getString("mode", "replicated");
+        final MatrixRenderer.Viewport viewport = viewport(arguments);
 
-//            print_cross(matrix, limits);
+        // All the processes use the seed of the root, so the matrix is the same whoever generates it
+        long[] seed = { arguments.getLong("seed", System.currentTimeMillis()) };
+        COMM.bcast(seed, 1, MPI.LONG, 0);
 
-            // Send the cross to all the processes
-            for (int i = 1; i < size; i++) {
-                MPI.COMM_WORLD.send(intArrayToByteBuffer(matrix), 1, cross_type, i, 0);
+        // A stored matrix is reused if it has the right dimensions, and its own seed replaces the given one
+        MatrixStore store = null;
+
+        if (arguments.has("store")) {
+            store = MatrixStore.openOrGenerate(MPI.COMM_WORLD, Path.of(arguments.getString("store", null)),
+                                               MatrixStore.ElementType.INT, N, seed[0], MAX_VALUE, numThreads);
+            seed[0] = store.seed();
+        }
+
+        final MatrixGenerator generator = new MatrixGenerator(seed[0], N);
+
+        // In the shared mode the processes of every node share one copy of the cross
+        final SharedNode node = mode.equals("shared") ? SharedNode.split(MPI.COMM_WORLD, arguments) : null;
+
+        RANDOM.setSeed(seed[0]);
+
+        byte[] buffer = new byte[4 * Integer.BYTES];
+        CrossLimits limits = new CrossLimits();
+        IntBuffer matrix = null;
+        int position = 0;
+
+        if (rank == 0) {
+            // The matrix is allocated off-heap (or mapped from the stored matrix), so it is packed without copying
+            // it to the Java heap. When the workers generate their own cross, the root does not need the matrix.
+            if (!distributedInit) {
+                matrix = store != null ? store.ints(0, N * N) : BufferPool.SHARED.ints(N * N);
             }
 
-            // Receive all the sums
-            for (int i = 1; i < size; i++) {
-                ByteBuffer sum = MPI.newByteBuffer(4);
-                MPI.COMM_WORLD.recv(sum, 1, MPI.INT, i, 0);
-                System.out.print(String.format("Sum (process %d): %d\n", i, sum.getInt()));
+            limits = generate_limits(N, RANDOM);
+            System.out.print(String.format("Limits: v_i:%d   v_j:%d   h_k:%d   h_t:%d\n",
+                                           limits.v_i, limits.v_j, limits.h_k, limits.h_t));
+
+            if (!distributedInit && store == null) {
+                double initialization_start = MPI.wtime();
+                initialize_matrix(matrix, N * N, generator, numThreads);
+                System.out.print(String.format("Matrix initialization time: %f\n",
+                                               MPI.wtime() - initialization_start));
             }
 
-            end = MPI.wtime();
+            if (viewport != null && matrix != null) {
+                print_matrix(matrix, N, viewport);
+                print_cross(matrix, limits, viewport);
+            }
 
-            System.out.print(String.format("Total time: %f\n", end - start));
+            position = COMM.pack(new int[] { limits.v_i }, 1, MPI.INT, buffer, position);
+            position = COMM.pack(new int[] { limits.v_j }, 1, MPI.INT, buffer, position);
+            position = COMM.pack(new int[] { limits.h_k }, 1, MPI.INT, buffer, position);
+            position = COMM.pack(new int[] { limits.h_t }, 1, MPI.INT, buffer, position);
+        }
 
-            cross_type.free();
-        } else {
-            MPI.COMM_WORLD.recv(buffer, 4, MPI.INT, 0, 0);
+        // Send the limits to all the processes
+        COMM.bcast(buffer, 4, MPI.INT, 0);
 
-            position = 0;
+        if (rank != 0) {
             int[] limit_v_i = new int[1];
             int[] limit_v_j = new int[1];
             int[] limit_h_k = new int[1];
             int[] limit_h_t = new int[1];
 
-            position = MPI.COMM_WORLD.unpack(buffer, position, limit_v_i, 1, MPI.INT);
-            position = MPI.COMM_WORLD.unpack(buffer, position, limit_v_j, 1, MPI.INT);
-            position = MPI.COMM_WORLD.unpack(buffer, position, limit_h_k, 1, MPI.INT);
-            position = MPI.COMM_WORLD.unpack(buffer, position, limit_h_t, 1, MPI.INT);
+            position = COMM.unpack(buffer, position, limit_v_i, 1, MPI.INT);
+            position = COMM.unpack(buffer, position, limit_v_j, 1, MPI.INT);
+            position = COMM.unpack(buffer, position, limit_h_k, 1, MPI.INT);
+            position = COMM.unpack(buffer, position, limit_h_t, 1, MPI.INT);
 
             limits.v_i = limit_v_i[0];
             limits.v_j = limit_v_j[0];
             limits.h_k = limit_h_k[0];
             limits.h_t = limit_h_t[0];
+        }
 
-            // Receive the vector of elements
-            final int cross_elements =
-                    (limits.v_j - limits.v_i + 1) * limits.h_k // Upper block
-                            + N * (limits.h_t - limits.h_k + 1) // Middle block
-                            + (limits.v_j - limits.v_i + 1) * (N - limits.h_t - 1); // Lower block
+        final int cross_elements = cross_elements(N, limits);
+        final ScalingReport report = new ScalingReport(MPI.COMM_WORLD, "Cross-" + mode, N, numThreads, arguments);
+        IntBuffer node_cross = null;
 
-            IntBuffer cross_local_buffer = MPI.newIntBuffer(cross_elements);
-            MPI.COMM_WORLD.recv(cross_local_buffer, cross_elements, MPI.INT, 0, 0);
+        // The shared cross is allocated once, like the buffers of the pool are reused by the other modes
+        if (node != null) {
+            try (MatrixStore cross_store = node.allocate(MatrixStore.ElementType.INT, 1, cross_elements)) {
+                node_cross = cross_store.ints(0, cross_elements);
+            }
+        }
 
-            // Sum the elements
-            int sum = 0;
-            for (int i = 0; i < cross_elements; i++) {
-                sum += cross_local_buffer.get(i);
+        double[] times = new double[PHASE_NAMES.length];
+
+        for (int iteration = report.firstIteration(); iteration < report.iterations(); iteration++) {
+            COMM.barrier();
+            double start = MPI.wtime();
+
+            switch (mode) {
+                case "replicated" -> replicated(rank, size, matrix, limits, cross_elements, generator,
+                                                distributedInit, numThreads, start, times);
+                case "partitioned" -> partitioned(rank, size, matrix, limits, cross_elements, generator,
+                                                  distributedInit, numThreads, start, times);
+                case "shared" -> shared(rank, size, node, node_cross, matrix, limits, cross_elements, generator,
+                                        distributedInit, numThreads, start, times);
+                default -> throw new IllegalArgumentException("Unknown mode: " + mode);
             }
 
-            // Send the sum to the master
-            MPI.COMM_WORLD.send(new int[] { sum }, 1, MPI.INT, 0, 0);
+            times[TOTAL] = MPI.wtime() - start;
+            report.record(iteration, PHASE_NAMES, times);
+        }
+
+        report.report();
+
+        if (store != null) {
+            store.close();
+        }
+
+        if (node != null) {
+            node.report();
+            node.close();
         }
 
+        RegionDatatypes.SHARED.freeAll();
+        COMM.report();
         MPI.Finalize();
     }
 }
@@ -0,0 +1,133 @@
+package jromp.mpi.examples;
+
+import mpi.Datatype;
+import mpi.MPI;
+import mpi.MPIException;
+
+import java.nio.IntBuffer;
+import java.util.Random;
+
+import static jromp.mpi.examples.Utils.printf;
+
+/**
+ * Compares the flat indexed datatype of the cross with the composite datatype of {@link RegionDatatypes}: the time to
+ * create each one, to pack the cross with it (sending the matrix to the same process), and to transfer the cross from
+ * the root to process 1 (when there are at least two processes).
+ */
+@SuppressWarnings("all")
+public class DatatypeBenchmark {
+    private static final int N = 8000;
+    private static final int NUM_ITERATIONS = 10;
+    private static final int MAX_VALUE = 10;
+    private static final int NUM_THREADS = 4;
+
+    public static void main(String[] args) throws MPIException {
+        MPI.Init(args);
+
+        int rank = MPI.COMM_WORLD.getRank();
+        int size = MPI.COMM_WORLD.getSize();
+
+        Arguments arguments = Arguments.parse(args);
+        final int n = arguments.getInt("n", N);
+        final int iterations = arguments.getInt("iterations", NUM_ITERATIONS);
+
+        // The root holds the whole matrix, as in Cross
+        if (n < 2 || (long) n * n > Cross.MAX_MATRIX_ELEMENTS) {
+            throw new IllegalArgumentException("DatatypeBenchmark supports 2 <= n <= "
+                                               + (int) Math.sqrt(Cross.MAX_MATRIX_ELEMENTS) + ", not " + n);
+        }
+
+        long[] seed = { arguments.getLong("seed", System.currentTimeMillis()) };
+        MPI.COMM_WORLD.bcast(seed, 1, MPI.LONG, 0);
+
+        final Cross.CrossLimits limits = Cross.generate_limits(n, new Random(seed[0]));
+        final int crossElements = Cross.cross_elements(n, limits);
+
+        IntBuffer matrix = null;
+        IntBuffer reference = null;
+        IntBuffer payload = BufferPool.SHARED.ints(crossElements);
+
+        if (rank == 0) {
+            matrix = BufferPool.SHARED.ints(n * n);
+            reference = BufferPool.SHARED.ints(crossElements);
+            new MatrixGenerator(seed[0], n).parallelFillInts(matrix, 0, 0, n * n, MAX_VALUE, NUM_THREADS);
+
+            printf("Matrix: %d x %d, cross: %d elements, %d arm blocks\n",
+                   n, n, crossElements, limits.h_k + n - limits.h_t - 1);
+            printf("%-10s %12s %12s %12s %8s\n", "Type", "Create(s)", "Pack(s)", "Transfer(s)", "Check");
+        }
+
+        for (String name : new String[] { "indexed", "region" }) {
+            double start = MPI.wtime();
+            Datatype type = rank == 0 ? createType(name, n, limits) : null;
+            double createTime = MPI.wtime() - start;
+            double packTime = 0.0;
+            String check = "";
+
+            if (rank == 0) {
+                start = MPI.wtime();
+
+                for (int i = 0; i < iterations; i++) {
+                    MPI.COMM_SELF.sendRecv(matrix, 1, type, 0, 0, payload, crossElements, MPI.INT, 0, 0);
+                }
+
+                packTime = (MPI.wtime() - start) / iterations;
+
+                // The first type is the reference of the rest
+                if (name.equals("indexed")) {
+                    reference.put(0, payload, 0, crossElements);
+                    check = "-";
+                } else {
+                    check = payload.equals(reference) ? "OK" : "FAILED";
+                }
+            }
+
+            double transferTime = size > 1 ? transfer(rank, matrix, type, payload, crossElements, iterations) : 0.0;
+
+            if (rank == 0) {
+                printf("%-10s %12f %12f %12f %8s\n", name, createTime, packTime, transferTime, check);
+
+                if (name.equals("indexed")) {
+                    type.free();
+                }
+            }
+        }
+
+        RegionDatatypes.SHARED.freeAll();
+        MPI.Finalize();
+    }
+
+    private static Datatype createType(String name, int n, Cross.CrossLimits limits) throws MPIException {
+        if (name.equals("indexed")) {
+            return RegionDatatypes.indexedCross(n, limits.v_i, limits.v_j, limits.h_k, limits.h_t, MPI.INT);
+        }
+
+        return RegionDatatypes.SHARED.cross(n, limits.v_i, limits.v_j, limits.h_k, limits.h_t, MPI.INT);
+    }
+
+    /**
+     * Sends the cross from the root to process 1 with the given datatype, which receives it contiguously and
+     * acknowledges it.
+     *
+     * @return the mean time of a transfer, measured in the root process.
+     */
+    private static double transfer(int rank, IntBuffer matrix, Datatype type, IntBuffer payload, int crossElements,
+                                   int iterations) throws MPIException {
+        int[] ack = new int[1];
+
+        MPI.COMM_WORLD.barrier();
+        double start = MPI.wtime();
+
+        for (int i = 0; i < iterations; i++) {
+            if (rank == 0) {
+                MPI.COMM_WORLD.send(matrix, 1, type, 1, 0);
+                MPI.COMM_WORLD.recv(ack, 1, MPI.INT, 1, 0);
+            } else if (rank == 1) {
+                MPI.COMM_WORLD.recv(payload, crossElements, MPI.INT, 0, 0);
+                MPI.COMM_WORLD.send(ack, 1, MPI.INT, 0, 0);
+            }
+        }
+
+        return (MPI.wtime() - start) / iterations;
+    }
+}
@@ -0,0 +1,117 @@
+package jromp.mpi.examples;
+
+import java.nio.DoubleBuffer;
+
+/**
+ * Row-major view of a matrix of doubles stored in a direct buffer.
+ * <p>
+ * The view does not own the memory: several views (for example the row blocks of a matrix) can share the same
+ * buffer, and the buffer can be passed to MPI directly. Rows are {@code ld} elements apart, which allows views of
+ * blocks of a larger matrix.
+ */
+public final class DoubleMatrix {
+    private final DoubleBuffer buffer;
+    private final int offset;
+    private final int rows;
+    private final int cols;
+    private final int ld;
+
+    public DoubleMatrix(DoubleBuffer buffer, int rows, int cols) {
+        this(buffer, 0, rows, cols, cols);
+    }
+
+    public DoubleMatrix(DoubleBuffer buffer, int offset, int rows, int cols, int ld) {
+        if (cols > ld) {
+            throw new IllegalArgumentException("The leading dimension must not be smaller than the columns");
+        }
+
+        this.buffer = buffer;
+        this.offset = offset;
+        this.rows = rows;
+        this.cols = cols;
+        this.ld = ld;
+    }
+
+    /**
+     * @return a dense matrix backed by a buffer of the given pool.
+     */
+    public static DoubleMatrix allocate(BufferPool pool, int rows, int cols) {
+        return new DoubleMatrix(pool.doubles(rows * cols), rows, cols);
+    }
+
+    public DoubleBuffer buffer() {
+        return buffer;
+    }
+
+    public int offset() {
+        return offset;
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int cols() {
+        return cols;
+    }
+
+    public int ld() {
+        return ld;
+    }
+
+    /**
+     * @return the index in the buffer of the element {@code (i, j)}.
+     */
+    public int index(int i, int j) {
+        return offset + i * ld + j;
+    }
+
+    public double get(int i, int j) {
+        return buffer.get(index(i, j));
+    }
+
+    public void set(int i, int j, double value) {
+        buffer.put(index(i, j), value);
+    }
+
+    /**
+     * @return a view of the rows {@code [start, start + count)}.
+     */
+    public DoubleMatrix rowBlock(int start, int count) {
+        return new DoubleMatrix(buffer, index(start, 0), count, cols, ld);
+    }
+
+    /**
+     * @return a view of the block of {@code rows x cols} elements whose first element is {@code (row, col)}.
+     */
+    public DoubleMatrix block(int row, int col, int rows, int cols) {
+        return new DoubleMatrix(buffer, index(row, col), rows, cols, ld);
+    }
+
+    /**
+     * Copies {@code length} elements of row {@code i}, starting at column {@code j}, to the array.
+     */
+    public void getRow(int i, int j, double[] destination, int destinationOffset, int length) {
+        buffer.get(index(i, j), destination, destinationOffset, length);
+    }
+
+    /**
+     * Copies {@code length} elements of the array to row {@code i}, starting at column {@code j}.
+     */
+    public void putRow(int i, int j, double[] source, int sourceOffset, int length) {
+        buffer.put(index(i, j), source, sourceOffset, length);
+    }
+
+    /**
+     * Sets every element of the view to the given value.
+     */
+    public void fill(double value) {
+        for (int i = 0; i < rows; i++) {
+            final int row = index(i, 0);
+
+            for (int j = 0; j < cols; j++) {
+                buffer.put(row + j, value);
+            }
+        }
+    }
+}
@@ -4,18 +4,61 @@ import jromp.Constants;
 import jromp.parallel.Parallel;
 import mpi.MPI;
 import mpi.MPIException;
+import mpi.Request;
+import mpi.Status;
+
+import java.io.IOException;
+import java.nio.DoubleBuffer;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 
 import static jromp.mpi.examples.Utils.printf;
 
 @SuppressWarnings("all")
 public class FullParallel {
-    private static final int N = 2000;
+    private static final int DEFAULT_N = 2000;
+    private static final int NUM_THREADS = 4;
+    private static final int NUM_TIMINGS = 3;
+    private static final int PANEL_ROWS = 128;
+    private static final int ROWS_HEADER_TAG = 0xC0;
+    private static final int ROWS_TAG_BASE = 0x100;
+
+    /**
+     * Order of the matrices, {@code --n}.
+     */
+    private static int N;
+
+    private static ProfiledComm COMM;
+
+    public static void main(String[] args) throws MPIException, IOException {
+        Arguments arguments = Arguments.parse(args);
+        String mode = arguments.getString("mode", "blocking");
+
+        // Only the threaded mode calls MPI from the JROMP threads
+        int provided = MPI.InitThread(args, mode.equals("threaded") ? MPI.THREAD_MULTIPLE : MPI.THREAD_FUNNELED);
+
+        COMM = new ProfiledComm(MPI.COMM_WORLD, arguments);
+        N = arguments.getInt("n", DEFAULT_N);
+
+        if (mode.equals("threaded") && provided < MPI.THREAD_MULTIPLE) {
+            if (COMM.getRank() == 0) {
+                printf("THREAD_MULTIPLE is not supported (provided level: %d), using the blocking mode\n", provided);
+            }
+
+            mode = "blocking";
+        }
 
-    public static void main(String[] args) throws MPIException {
-        MPI.InitThread(args, MPI.THREAD_FUNNELED);
+        final int[] tile = arguments.getIntList("tile", MatMulKernels.DEFAULT_TILE);
+        final MatMulKernel kernel = MatMulKernels.byName(arguments.getString("kernel", "blocked"), tile);
+        final int numThreads = arguments.getInt("threads", NUM_THREADS);
+        final boolean verify = arguments.getBoolean("verify");
+        final boolean pipelined = mode.equals("pipelined");
+        final boolean threaded = mode.equals("threaded");
+        final boolean shared = mode.equals("shared");
+        final int panelRows = arguments.getInt("panel", PANEL_ROWS);
 
-        int rank = MPI.COMM_WORLD.getRank();
-        int size = MPI.COMM_WORLD.getSize();
+        int rank = COMM.getRank();
+        int size = COMM.getSize();
 
         // Print the available number of threads
         Parallel.defaultConfig()
@@ -24,46 +67,511 @@ public class FullParallel {
                 })
                 .join();
 
-        double[] A = new double[N * N];
-        double[] B = new double[N * N];
-        double[] C = new double[N * N];
+        if (rank == 0) {
+            printf("Kernel: %s\n", kernel.name());
+
+            if (verify && !MatMulKernels.verifyAll(tile)) {
+                COMM.abort(1);
+            }
+        }
+
+        // Each process computes a block of consecutive rows of C. The blocks differ at most by one row. In the shared
+        // mode the rows are split among the nodes first, so the processes of a node compute consecutive rows.
+        final SharedNode node = shared ? SharedNode.split(MPI.COMM_WORLD, arguments) : null;
+        final int[] rowsPerRank = shared ? new int[size] : Utils.blockSizes(N, size);
+        final int[] counts;
+        final int[] displacements;
+
+        if (shared) {
+            int[] firstRows = nodeRowBlocks(node, rowsPerRank);
+            counts = Utils.scale(rowsPerRank, N);
+            displacements = Utils.scale(firstRows, N);
+        } else {
+            counts = Utils.scale(rowsPerRank, N);
+            displacements = Utils.displacements(counts);
+        }
+
+        final int localRows = rowsPerRank[rank];
+
+        // All the matrices live in direct buffers, so MPI reads and writes them without intermediate copies
+        final BufferPool pool = BufferPool.SHARED;
+        DoubleMatrix A = null;
+        DoubleMatrix B;
+        DoubleMatrix C = null;
+        DoubleMatrix nodeA = null;
+        DoubleMatrix localA;
+        DoubleMatrix localC = DoubleMatrix.allocate(pool, localRows, N);
+
+        if (shared) {
+            // The node of the root holds the whole A, which the root initializes, and every other node the rows of
+            // its processes. The processes of a node read their rows of A and the whole B in place.
+            final int[] nodeRows = Utils.blockSizes(N, node.numNodes());
+            final int nodeIndex = node.nodeIndex();
+            final int firstNodeRow = Utils.displacements(nodeRows)[nodeIndex];
+            final int aRows = nodeIndex == 0 ? N : nodeRows[nodeIndex];
+
+            try (MatrixStore aStore = node.allocate(MatrixStore.ElementType.DOUBLE, aRows, N);
+                 MatrixStore bStore = node.allocate(MatrixStore.ElementType.DOUBLE, N, N)) {
+                nodeA = new DoubleMatrix(aStore.doubles(0, aRows * N), aRows, N);
+                B = new DoubleMatrix(bStore.doubles(0, N * N), N, N);
+            }
+
+            localA = nodeA.rowBlock(displacements[rank] / N - firstNodeRow, localRows);
+
+            if (rank == 0) {
+                A = nodeA;
+                printf("Nodes: %d, processes in the node of the root: %d\n", node.numNodes(), node.nodeSize());
+            }
+        } else {
+            B = DoubleMatrix.allocate(pool, N, N);
+            localA = DoubleMatrix.allocate(pool, localRows, N);
+
+            if (rank == 0) {
+                A = DoubleMatrix.allocate(pool, N, N);
+            }
+        }
 
         if (rank == 0) {
-            for (int i = 0; i < N; i++) {
-                for (int j = 0; j < N; j++) {
-                    A[i * N + j] = 1.0;
-                    B[i * N + j] = 1.0;
+            C = DoubleMatrix.allocate(pool, N, N);
+
+            A.fill(1.0);
+            B.fill(1.0);
+        }
+
+        double referenceTime = 0.0;
+
+        if (pipelined && arguments.getBoolean("compare")) {
+            // Time the blocking distribution alone, to know how much communication the pipeline hides
+            COMM.barrier();
+            double reference_start = MPI.wtime();
+            distribute(A, B, localA, counts, displacements);
+            referenceTime = MPI.wtime() - reference_start;
+        }
+
+        final ScalingReport report = new ScalingReport(MPI.COMM_WORLD, "FullParallel-" + mode, N, numThreads,
+                                                       arguments);
+        final String[] phaseNames = { pipelined ? "wait" : "scatter", "compute", "gather", "total" };
+        double[] timings = new double[NUM_TIMINGS];
+        double[] iterationTimes = new double[NUM_TIMINGS + 1];
+        double start_time = 0.0;
+        double end_time = 0.0;
+
+        // The timings printed per rank are the ones of the last iteration
+        for (int iteration = report.firstIteration(); iteration < report.iterations(); iteration++) {
+            // The kernels accumulate into C
+            localC.fill(0.0);
+
+            COMM.barrier();
+            start_time = MPI.wtime();
+
+            if (pipelined) {
+                double[] pipelineTimings = distributeAndComputePipelined(kernel, numThreads, panelRows, A, B, localA,
+                                                                         localC, rowsPerRank, displacements);
+                timings[0] = pipelineTimings[0];
+                timings[1] = pipelineTimings[1];
+            } else if (shared) {
+                distributeShared(node, nodeA, B);
+                double distributed_time = MPI.wtime();
+                timings[0] = distributed_time - start_time;
+
+                multiplyRows(kernel, numThreads, localA, B, localC, 0, localRows);
+                timings[1] = MPI.wtime() - distributed_time;
+            } else {
+                distribute(A, B, localA, counts, displacements);
+                double distributed_time = MPI.wtime();
+                timings[0] = distributed_time - start_time;
+
+                if (threaded) {
+                    // The rows of C reach the root while they are computed, so the gather time is only the time the
+                    // root waits for the last rows after computing its own
+                    timings[2] = multiplyAndSendRows(kernel, numThreads, localA, B, localC, C,
+                                                     displacements[rank] / N);
+                    timings[1] = MPI.wtime() - distributed_time - timings[2];
+                } else {
+                    multiplyRows(kernel, numThreads, localA, B, localC, 0, localRows);
+                    timings[1] = MPI.wtime() - distributed_time;
                 }
             }
+
+            if (!threaded) {
+                double computed_time = MPI.wtime();
+
+                // Collect the row blocks of C in the root process
+                COMM.gatherv(localC.buffer(), localRows * N, MPI.DOUBLE,
+                             C == null ? null : C.buffer(), counts, displacements, MPI.DOUBLE, 0);
+
+                timings[2] = MPI.wtime() - computed_time;
+            }
+
+            COMM.barrier();
+            end_time = MPI.wtime();
+
+            System.arraycopy(timings, 0, iterationTimes, 0, NUM_TIMINGS);
+            iterationTimes[NUM_TIMINGS] = end_time - start_time;
+            report.record(iteration, phaseNames, iterationTimes);
         }
 
-        MPI.COMM_WORLD.barrier();
-        double start_time = MPI.wtime();
+        printRankTimings(rank, size, rowsPerRank, timings, pipelined ? "Wait(s)" : "Scatter(s)");
 
-        MPI.COMM_WORLD.bcast(A, N * N, MPI.DOUBLE, 0);
-        MPI.COMM_WORLD.bcast(B, N * N, MPI.DOUBLE, 0);
+        if (pipelined) {
+            printHiddenCommunication(rank, timings[0], referenceTime);
+        }
 
-        Parallel.withThreads(4)
-                .parallelFor(0, N, false, (id, start, end, vars) -> {
-                    for (int i = start; i < end; i++) {
-                        for (int j = 0; j < N; j++) {
-                            C[i * N + j] = 0.0;
+        if (rank == 0) {
+            printf("Time: %f\n", end_time - start_time);
+
+            if (verify) {
+                printf("Result max error: %e\n", sampledError(A, B, C));
+            }
+        }
+
+        report.report();
+
+        if (node != null) {
+            node.report();
+            node.close();
+        }
+
+        COMM.report();
+        MPI.Finalize();
+    }
+
+    /**
+     * Scatters the row blocks of A and broadcasts B with blocking collectives.
+     */
+    static void distribute(DoubleMatrix A, DoubleMatrix B, DoubleMatrix localA, int[] counts, int[] displacements)
+            throws MPIException {
+        COMM.scatterv(A == null ? null : A.buffer(), counts, displacements, MPI.DOUBLE,
+                      localA.buffer(), localA.rows() * N, MPI.DOUBLE, 0);
+        COMM.bcast(B.buffer(), N * N, MPI.DOUBLE, 0);
+    }
+
+    /**
+     * Splits the rows of C in blocks of consecutive rows, one per node, and the block of every node among its
+     * processes.
+     *
+     * @param rowsPerRank the number of rows of every process is stored here.
+     *
+     * @return the first row of every process.
+     */
+    static int[] nodeRowBlocks(SharedNode node, int[] rowsPerRank) throws MPIException {
+        final int size = rowsPerRank.length;
+        final int nodeIndex = node.nodeIndex();
+        final int[] nodeRows = Utils.blockSizes(N, node.numNodes());
+        final int[] rows = Utils.blockSizes(nodeRows[nodeIndex], node.nodeSize());
+        final int[] firstRows = Utils.displacements(rows);
+        int[] local = {
+                Utils.displacements(nodeRows)[nodeIndex] + firstRows[node.nodeRank()],
+                rows[node.nodeRank()]
+        };
+        int[] all = new int[2 * size];
+
+        COMM.allGather(local, 2, MPI.INT, all, 2, MPI.INT);
+
+        int[] rankFirstRows = new int[size];
+
+        for (int r = 0; r < size; r++) {
+            rankFirstRows[r] = all[2 * r];
+            rowsPerRank[r] = all[2 * r + 1];
+        }
+
+        return rankFirstRows;
+    }
+
+    /**
+     * Distributes A and B once per node: the root scatters the row blocks of the nodes of A and broadcasts B to the
+     * leaders only, which receive them in the matrices shared by their node. The root node keeps its block in place.
+     *
+     * @param nodeA the rows of A shared by the node of the calling process.
+     * @param B     the B shared by the node of the calling process.
+     */
+    static void distributeShared(SharedNode node, DoubleMatrix nodeA, DoubleMatrix B) throws MPIException {
+        if (node.isLeader()) {
+            final ProfiledComm leaders = node.leaders();
+            final int[] counts = Utils.scale(Utils.blockSizes(N, node.numNodes()), N);
+            final int[] displacements = Utils.displacements(counts);
+
+            if (node.nodeIndex() == 0) {
+                leaders.scatterv(nodeA.buffer(), counts, displacements, MPI.DOUBLE, 0);
+            } else {
+                leaders.scatterv(null, counts, displacements, MPI.DOUBLE,
+                                 nodeA.buffer(), counts[node.nodeIndex()], MPI.DOUBLE, 0);
+            }
+
+            leaders.bcast(B.buffer(), N * N, MPI.DOUBLE, 0);
+        }
 
-                            for (int k = 0; k < N; k++) {
-                                C[i * N + j] += A[i * N + k] * B[k * N + j];
-                            }
-                        }
+        // The other processes of the node read A and B once the leader has received them
+        node.barrier();
+    }
+
+    /**
+     * Computes the given rows of C with the JROMP threads.
+     */
+    static void multiplyRows(MatMulKernel kernel, int numThreads, DoubleMatrix a, DoubleMatrix b, DoubleMatrix c,
+                             int rowStart, int rowEnd) {
+        Parallel.withThreads(numThreads)
+                .parallelFor(rowStart, rowEnd, false, (id, start, end, vars) -> {
+                    kernel.multiply(a, b, c, start, end);
+                })
+                .join();
+    }
+
+    /**
+     * Computes the local rows of C with the JROMP threads, and every thread sends its block of rows to the root as soon
+     * as it finishes it, so the collection of C overlaps with the computation of the other threads. It needs
+     * {@code THREAD_MULTIPLE}.
+     * <p>
+     * A thread first sends a header with the first row, the number of rows and its id, and then the rows with the tag
+     * {@code ROWS_TAG_BASE + id}, so the root can receive the rows of every thread in place even if the headers of
+     * several threads arrive interleaved. The threads of the root copy their rows into C, and a receiver thread of the
+     * root receives the rows of the other processes while they compute.
+     *
+     * @param C        the result matrix in the root process, {@code null} in the others.
+     * @param firstRow the row of C of the first local row.
+     *
+     * @return the time the root waited for the rows of the other processes after computing its own rows, zero in the
+     *         other processes.
+     */
+    static double multiplyAndSendRows(MatMulKernel kernel, int numThreads, DoubleMatrix localA, DoubleMatrix B,
+                                      DoubleMatrix localC, DoubleMatrix C, int firstRow) throws MPIException {
+        final int rank = COMM.getRank();
+        final int localRows = localA.rows();
+        FutureTask<Void> receiver = null;
+
+        if (rank == 0) {
+            receiver = new FutureTask<>(() -> {
+                receiveRows(C, N - localRows);
+                return null;
+            });
+            new Thread(receiver, "rows-receiver").start();
+        }
+
+        Parallel.withThreads(numThreads)
+                .parallelFor(0, localRows, false, (id, start, end, vars) -> {
+                    kernel.multiply(localA, B, localC, start, end);
+
+                    if (end == start) {
+                        return;
+                    }
+
+                    DoubleBuffer rows = BufferPool.slice(localC.buffer(), start * N, (end - start) * N);
+
+                    if (rank == 0) {
+                        BufferPool.slice(C.buffer(), (firstRow + start) * N, (end - start) * N).put(rows);
+                        return;
+                    }
+
+                    try {
+                        int[] header = { firstRow + start, end - start, id };
+                        COMM.send(header, header.length, MPI.INT, 0, ROWS_HEADER_TAG);
+                        COMM.send(rows, (end - start) * N, MPI.DOUBLE, 0, ROWS_TAG_BASE + id);
+                    } catch (MPIException e) {
+                        throw new IllegalStateException("Thread " + id + " could not send its rows of C", e);
                     }
                 })
                 .join();
 
-        MPI.COMM_WORLD.barrier();
-        double end_time = MPI.wtime();
+        if (receiver == null) {
+            return 0.0;
+        }
+
+        double wait_start = MPI.wtime();
+
+        try {
+            receiver.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while receiving the rows of C", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof MPIException mpiException) {
+                throw mpiException;
+            }
+
+            throw new IllegalStateException("Could not receive the rows of C", e.getCause());
+        }
+
+        return MPI.wtime() - wait_start;
+    }
+
+    /**
+     * Receives, in the root process, the blocks of rows sent by the threads of the other processes into C.
+     *
+     * @param expectedRows the number of rows computed by the other processes.
+     */
+    private static void receiveRows(DoubleMatrix C, int expectedRows) throws MPIException {
+        int[] header = new int[3];
+
+        for (int received = 0; received < expectedRows; received += header[1]) {
+            Status status = COMM.recv(header, header.length, MPI.INT, MPI.ANY_SOURCE, ROWS_HEADER_TAG);
+            COMM.recv(BufferPool.slice(C.buffer(), header[0] * N, header[1] * N), header[1] * N, MPI.DOUBLE,
+                      status.getSource(), ROWS_TAG_BASE + header[2]);
+        }
+    }
+
+    /**
+     * Distributes A and B in panels of {@code panelRows} rows with non-blocking collectives and overlaps the transfer
+     * of each panel with the computation of the previous one.
+     * <p>
+     * B is split in row panels that are broadcast with {@code iBcast}: the broadcast of panel {@code k + 1} is posted
+     * before the threads compute {@code C += A[:, panel k] * B[panel k, :]}. The row block of every process is also
+     * split in row panels that are scattered with {@code iScatterv}, and the first B panel is applied to each A panel
+     * as soon as it arrives.
+     *
+     * @return the time spent waiting for transfers and the time spent computing.
+     */
+    static double[] distributeAndComputePipelined(MatMulKernel kernel, int numThreads, int panelRows,
+                                                  DoubleMatrix A, DoubleMatrix B, DoubleMatrix localA,
+                                                  DoubleMatrix localC, int[] rowsPerRank, int[] displacements)
+            throws MPIException {
+        final int rank = COMM.getRank();
+        final int size = COMM.getSize();
+        final int localRows = localA.rows();
+        // All the processes must post the same number of collectives, so use the panels of the largest block
+        final int numAPanels = (rowsPerRank[0] + panelRows - 1) / panelRows;
+        final int numBPanels = (N + panelRows - 1) / panelRows;
+        final Request[] aRequests = new Request[numAPanels];
+        final Request[] bRequests = new Request[numBPanels];
+        double waitTime = 0.0;
+        double computeTime = 0.0;
+
+        // Post the scatter of every A panel and the broadcast of the first B panel
+        for (int p = 0; p < numAPanels; p++) {
+            int[] panelCounts = new int[size];
+            int[] panelDisplacements = new int[size];
+
+            for (int r = 0; r < size; r++) {
+                int firstRow = Math.min(p * panelRows, rowsPerRank[r]);
+                int rows = Math.min(panelRows, rowsPerRank[r] - firstRow);
+                panelCounts[r] = rows * N;
+                panelDisplacements[r] = displacements[r] + firstRow * N;
+            }
+
+            int firstRow = Math.min(p * panelRows, localRows);
+            aRequests[p] = COMM.iScatterv(A == null ? null : A.buffer(), panelCounts, panelDisplacements, MPI.DOUBLE,
+                                          BufferPool.slice(localA.buffer(), firstRow * N, panelCounts[rank]),
+                                          panelCounts[rank], MPI.DOUBLE, 0);
+        }
+
+        bRequests[0] = broadcastPanel(B, 0, panelRows);
+
+        for (int k = 0; k < numBPanels; k++) {
+            final int firstRow = k * panelRows;
+            final int depth = Math.min(panelRows, N - firstRow);
+
+            if (k + 1 < numBPanels) {
+                bRequests[k + 1] = broadcastPanel(B, k + 1, panelRows);
+            }
+
+            double wait_start = MPI.wtime();
+            COMM.waitFor(bRequests[k]);
+            waitTime += MPI.wtime() - wait_start;
+
+            final DoubleMatrix a = localA.block(0, firstRow, localRows, depth);
+            final DoubleMatrix b = B.rowBlock(firstRow, depth);
+
+            if (k == 0) {
+                for (int p = 0; p < numAPanels; p++) {
+                    wait_start = MPI.wtime();
+                    COMM.waitFor(aRequests[p]);
+                    double compute_start = MPI.wtime();
+                    waitTime += compute_start - wait_start;
+
+                    int panelStart = Math.min(p * panelRows, localRows);
+                    int panelEnd = Math.min(panelStart + panelRows, localRows);
+                    multiplyRows(kernel, numThreads, a, b, localC, panelStart, panelEnd);
+                    computeTime += MPI.wtime() - compute_start;
+                }
+            } else {
+                double compute_start = MPI.wtime();
+                multiplyRows(kernel, numThreads, a, b, localC, 0, localRows);
+                computeTime += MPI.wtime() - compute_start;
+            }
+        }
+
+        return new double[] { waitTime, computeTime };
+    }
+
+    private static Request broadcastPanel(DoubleMatrix B, int panel, int panelRows) throws MPIException {
+        int firstRow = panel * panelRows;
+        int count = Math.min(panelRows, N - firstRow) * N;
+
+        return COMM.iBcast(BufferPool.slice(B.buffer(), firstRow * N, count), count, MPI.DOUBLE, 0);
+    }
+
+    /**
+     * Prints, in the root process, how much of the communication time of the blocking distribution was hidden by the
+     * pipeline. The exposed time of the slowest process is used.
+     *
+     * @param exposedTime   the time the calling process waited for transfers in the pipeline.
+     * @param referenceTime the time of the blocking distribution, or zero if it was not measured.
+     */
+    static void printHiddenCommunication(int rank, double exposedTime, double referenceTime) throws MPIException {
+        double[] times = { exposedTime, referenceTime };
+        double[] maxTimes = new double[2];
+
+        COMM.reduce(times, maxTimes, 2, MPI.DOUBLE, MPI.MAX, 0);
 
         if (rank == 0) {
-            printf("Time: %f\n", end_time - start_time);
+            printf("Exposed communication time: %f\n", maxTimes[0]);
+
+            if (maxTimes[1] > 0.0) {
+                double hidden = Math.max(0.0, maxTimes[1] - maxTimes[0]);
+                printf("Blocking distribution time: %f, hidden: %f (%.1f%%)\n",
+                       maxTimes[1], hidden, 100.0 * hidden / maxTimes[1]);
+            }
         }
+    }
 
-        MPI.Finalize();
+    /**
+     * Recomputes the first, middle and last rows of C with the naive kernel.
+     *
+     * @return the maximum absolute difference between the recomputed rows and C.
+     */
+    static double sampledError(DoubleMatrix A, DoubleMatrix B, DoubleMatrix C) {
+        final MatMulKernel naive = MatMulKernels.byName("naive", MatMulKernels.DEFAULT_TILE);
+        final DoubleMatrix expected = DoubleMatrix.allocate(BufferPool.SHARED, 1, N);
+        double error = 0.0;
+
+        for (int row : new int[] { 0, N / 2, N - 1 }) {
+            expected.fill(0.0);
+            naive.multiply(A.rowBlock(row, 1), B, expected, 0, 1);
+
+            for (int j = 0; j < N; j++) {
+                error = Math.max(error, Math.abs(expected.get(0, j) - C.get(row, j)));
+            }
+        }
+
+        BufferPool.SHARED.release(expected.buffer());
+        return error;
+    }
+
+    /**
+     * Collects the timings of every process in the root process and prints them, one line per rank.
+     *
+     * @param rank        the rank of the calling process.
+     * @param size        the number of processes.
+     * @param rowsPerRank the number of rows computed by each process.
+     * @param timings     the distribution, computation and collection times of the calling process.
+     * @param firstColumn the header of the distribution time column.
+     *
+     * @throws MPIException if the timings cannot be gathered.
+     */
+    static void printRankTimings(int rank, int size, int[] rowsPerRank, double[] timings, String firstColumn)
+            throws MPIException {
+        double[] allTimings = new double[NUM_TIMINGS * size];
+
+        COMM.gather(timings, NUM_TIMINGS, MPI.DOUBLE, allTimings, NUM_TIMINGS, MPI.DOUBLE, 0);
+
+        if (rank == 0) {
+            printf("%-6s %8s %12s %12s %12s\n", "Rank", "Rows", firstColumn, "Compute(s)", "Gather(s)");
+
+            for (int r = 0; r < size; r++) {
+                printf("%-6d %8d %12f %12f %12f\n", r, rowsPerRank[r],
+                       allTimings[r * NUM_TIMINGS],
+                       allTimings[r * NUM_TIMINGS + 1],
+                       allTimings[r * NUM_TIMINGS + 2]);
+            }
+        }
     }
 }
@@ -0,0 +1,88 @@
+package jromp.mpi.examples;
+
+import java.nio.IntBuffer;
+
+/**
+ * Row-major view of a matrix of integers stored in a direct buffer.
+ *
+ * @see DoubleMatrix
+ */
+public final class IntMatrix {
+    private final IntBuffer buffer;
+    private final int offset;
+    private final int rows;
+    private final int cols;
+    private final int ld;
+
+    public IntMatrix(IntBuffer buffer, int rows, int cols) {
+        this(buffer, 0, rows, cols, cols);
+    }
+
+    public IntMatrix(IntBuffer buffer, int offset, int rows, int cols, int ld) {
+        if (cols > ld) {
+            throw new IllegalArgumentException("The leading dimension must not be smaller than the columns");
+        }
+
+        this.buffer = buffer;
+        this.offset = offset;
+        this.rows = rows;
+        this.cols = cols;
+        this.ld = ld;
+    }
+
+    /**
+     * @return a dense matrix backed by a buffer of the given pool.
+     */
+    public static IntMatrix allocate(BufferPool pool, int rows, int cols) {
+        return new IntMatrix(pool.ints(rows * cols), rows, cols);
+    }
+
+    public IntBuffer buffer() {
+        return buffer;
+    }
+
+    public int offset() {
+        return offset;
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int cols() {
+        return cols;
+    }
+
+    public int ld() {
+        return ld;
+    }
+
+    /**
+     * @return the index in the buffer of the element {@code (i, j)}.
+     */
+    public int index(int i, int j) {
+        return offset + i * ld + j;
+    }
+
+    public int get(int i, int j) {
+        return buffer.get(index(i, j));
+    }
+
+    public void set(int i, int j, int value) {
+        buffer.put(index(i, j), value);
+    }
+
+    /**
+     * @return a view of the block of {@code rows x cols} elements whose first element is {@code (row, col)}.
+     */
+    public IntMatrix block(int row, int col, int rows, int cols) {
+        return new IntMatrix(buffer, index(row, col), rows, cols, ld);
+    }
+
+    /**
+     * Copies {@code length} elements of row {@code i}, starting at column {@code j}, to another buffer.
+     */
+    public void copyRow(int i, int j, IntBuffer destination, int destinationOffset, int length) {
+        destination.put(destinationOffset, buffer, index(i, j), length);
+    }
+}
@@ -0,0 +1,51 @@
+package jromp.mpi.examples;
+
+/**
+ * Compensated (Kahan-Babuska-Neumaier) summation. The running compensation collects the low-order bits lost in each
+ * addition, so the error does not grow with the number of terms as in a plain loop.
+ */
+public final class KahanSum {
+    private double sum;
+    private double compensation;
+
+    public void add(double value) {
+        double t = sum + value;
+
+        if (Math.abs(sum) >= Math.abs(value)) {
+            compensation += (sum - t) + value;
+        } else {
+            compensation += (value - t) + sum;
+        }
+
+        sum = t;
+    }
+
+    /**
+     * Adds the terms of another compensated sum.
+     */
+    public void add(KahanSum other) {
+        add(other.sum);
+        compensation += other.compensation;
+    }
+
+    /**
+     * @return the uncompensated sum of the terms.
+     */
+    public double sum() {
+        return sum;
+    }
+
+    /**
+     * @return the accumulated correction of the sum.
+     */
+    public double compensation() {
+        return compensation;
+    }
+
+    /**
+     * @return the compensated sum of the terms.
+     */
+    public double value() {
+        return sum + compensation;
+    }
+}
@@ -0,0 +1,99 @@
+package jromp.mpi.examples;
+
+/**
+ * Kernel that multiplies two dense row-major matrices.
+ * <p>
+ * Every operand is described by an array, the offset of its first element and its leading dimension (the distance
+ * between two consecutive rows), so the same kernel can be applied to whole matrices, row blocks or panels.
+ * Implementations must be stateless or thread-safe: the same instance is shared by all the threads of a parallel
+ * loop, each of them working on a disjoint range of rows.
+ * <p>
+ * Matrices stored in direct buffers are multiplied with {@link #multiply(DoubleMatrix, DoubleMatrix, DoubleMatrix,
+ * int, int)}, which copies one panel of each operand at a time to small arrays (the packing step of optimized GEMM
+ * libraries) and runs the array kernel on them, so the direct buffers are only accessed with bulk copies.
+ */
+public interface MatMulKernel {
+    int PACK_ROWS = 64;
+    int PACK_COLS = 512;
+    int PACK_DEPTH = 256;
+
+    /**
+     * @return the name used to select the kernel.
+     */
+    String name();
+
+    /**
+     * Accumulates {@code C[rowStart:rowEnd, 0:cols] += A[rowStart:rowEnd, 0:depth] * B[0:depth, 0:cols]}.
+     *
+     * @param a        the elements of A.
+     * @param aOffset  the offset of the first element of A.
+     * @param lda      the leading dimension of A.
+     * @param b        the elements of B.
+     * @param bOffset  the offset of the first element of B.
+     * @param ldb      the leading dimension of B.
+     * @param c        the elements of C.
+     * @param cOffset  the offset of the first element of C.
+     * @param ldc      the leading dimension of C.
+     * @param rowStart the first row of A and C to compute (inclusive).
+     * @param rowEnd   the last row of A and C to compute (exclusive).
+     * @param depth    the number of columns of A and rows of B.
+     * @param cols     the number of columns of B and C.
+     */
+    void multiply(double[] a, int aOffset, int lda,
+                  double[] b, int bOffset, int ldb,
+                  double[] c, int cOffset, int ldc,
+                  int rowStart, int rowEnd, int depth, int cols);
+
+    /**
+     * Accumulates the product of two dense matrices stored without padding.
+     *
+     * @see #multiply(double[], int, int, double[], int, int, double[], int, int, int, int, int, int)
+     */
+    default void multiply(double[] a, double[] b, double[] c, int rowStart, int rowEnd, int depth, int cols) {
+        multiply(a, 0, depth, b, 0, cols, c, 0, cols, rowStart, rowEnd, depth, cols);
+    }
+
+    /**
+     * Accumulates {@code C[rowStart:rowEnd, :] += A[rowStart:rowEnd, :] * B} for matrices stored in direct buffers.
+     *
+     * @param a        the left operand, with as many columns as rows of B.
+     * @param b        the right operand.
+     * @param c        the result, with as many columns as B.
+     * @param rowStart the first row of A and C to compute (inclusive).
+     * @param rowEnd   the last row of A and C to compute (exclusive).
+     */
+    default void multiply(DoubleMatrix a, DoubleMatrix b, DoubleMatrix c, int rowStart, int rowEnd) {
+        final int depth = a.cols();
+        final int cols = b.cols();
+        final double[] packedA = new double[PACK_ROWS * PACK_DEPTH];
+        final double[] packedB = new double[PACK_DEPTH * PACK_COLS];
+        final double[] packedC = new double[PACK_ROWS * PACK_COLS];
+
+        for (int kk = 0; kk < depth; kk += PACK_DEPTH) {
+            final int kLength = Math.min(PACK_DEPTH, depth - kk);
+
+            for (int jj = 0; jj < cols; jj += PACK_COLS) {
+                final int jLength = Math.min(PACK_COLS, cols - jj);
+
+                for (int k = 0; k < kLength; k++) {
+                    b.getRow(kk + k, jj, packedB, k * jLength, jLength);
+                }
+
+                for (int ii = rowStart; ii < rowEnd; ii += PACK_ROWS) {
+                    final int iLength = Math.min(PACK_ROWS, rowEnd - ii);
+
+                    for (int i = 0; i < iLength; i++) {
+                        a.getRow(ii + i, kk, packedA, i * kLength, kLength);
+                        c.getRow(ii + i, jj, packedC, i * jLength, jLength);
+                    }
+
+                    multiply(packedA, packedB, packedC, 0, iLength, kLength, jLength);
+
+                    for (int i = 0; i < iLength; i++) {
+                        c.putRow(ii + i, jj, packedC, i * jLength, jLength);
+                    }
+                }
+            }
+        }
+    }
+}
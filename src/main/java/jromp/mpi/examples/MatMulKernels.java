@@ -0,0 +1,349 @@
+package jromp.mpi.examples;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Available {@link MatMulKernel} implementations.
+ */
+public final class MatMulKernels {
+    public static final int[] DEFAULT_TILE = { 64, 256, 128 };
+
+    private static final int VERIFY_ROWS = 67;
+    private static final int VERIFY_DEPTH = 131;
+    private static final int VERIFY_COLS = 97;
+    private static final double VERIFY_TOLERANCE = 1e-9;
+
+    private MatMulKernels() {
+    }
+
+    /**
+     * Returns the kernel with the given name.
+     *
+     * @param name the name of the kernel: {@code naive}, {@code ikj}, {@code transposed}, {@code blocked} or
+     *             {@code vector}.
+     * @param tile the rows, columns and depth of the tiles used by the blocked kernel.
+     *
+     * @return the selected kernel.
+     */
+    public static MatMulKernel byName(String name, int[] tile) {
+        return switch (name) {
+            case "naive" -> new Naive();
+            case "ikj" -> new Ikj();
+            case "transposed" -> new TransposedB();
+            case "blocked" -> new Blocked(tile[0], tile[1], tile[2]);
+            case "vector" -> Simd.matMulKernel(tile);
+            default -> throw new IllegalArgumentException("Unknown matrix multiplication kernel: " + name);
+        };
+    }
+
+    /**
+     * @param tile the tile sizes of the blocked kernel.
+     *
+     * @return an instance of every available kernel.
+     */
+    public static List<MatMulKernel> all(int[] tile) {
+        return List.of(new Naive(), new Ikj(), new TransposedB(), new Blocked(tile[0], tile[1], tile[2]),
+                       Simd.matMulKernel(tile));
+    }
+
+    /**
+     * Multiplies two random matrices whose dimensions are not multiples of the tile sizes with the given kernel and
+     * with the naive kernel, and returns the maximum absolute difference between both results.
+     *
+     * @param kernel the kernel to check.
+     * @param seed   the seed of the random matrices.
+     *
+     * @return the maximum absolute difference with respect to the naive kernel.
+     */
+    public static double maxError(MatMulKernel kernel, long seed) {
+        Random random = new Random(seed);
+        double[] a = new double[VERIFY_ROWS * VERIFY_DEPTH];
+        double[] b = new double[VERIFY_DEPTH * VERIFY_COLS];
+        double[] expected = new double[VERIFY_ROWS * VERIFY_COLS];
+        double[] actual = new double[VERIFY_ROWS * VERIFY_COLS];
+
+        for (int i = 0; i < a.length; i++) {
+            a[i] = random.nextDouble() - 0.5;
+        }
+
+        for (int i = 0; i < b.length; i++) {
+            b[i] = random.nextDouble() - 0.5;
+        }
+
+        // Start from a non-zero C to check that the kernels accumulate
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = actual[i] = random.nextDouble();
+        }
+
+        new Naive().multiply(a, b, expected, 0, VERIFY_ROWS, VERIFY_DEPTH, VERIFY_COLS);
+        kernel.multiply(a, b, actual, 0, VERIFY_ROWS, VERIFY_DEPTH, VERIFY_COLS);
+
+        double error = 0.0;
+
+        for (int i = 0; i < expected.length; i++) {
+            error = Math.max(error, Math.abs(expected[i] - actual[i]));
+        }
+
+        return error;
+    }
+
+    /**
+     * Checks every kernel against the naive one and prints the result of each check.
+     *
+     * @param tile the tile sizes of the blocked kernel.
+     *
+     * @return {@code true} if all the kernels are correct.
+     */
+    public static boolean verifyAll(int[] tile) {
+        boolean correct = true;
+
+        for (MatMulKernel kernel : all(tile)) {
+            double error = maxError(kernel, 42);
+            boolean passed = error <= VERIFY_TOLERANCE;
+            correct &= passed;
+            Utils.printf("Kernel %-12s max error %e %s\n", kernel.name(), error, passed ? "OK" : "FAILED");
+        }
+
+        return correct;
+    }
+
+    /**
+     * The i-j-k triple loop. It walks B column by column and updates C on every step of the inner loop.
+     */
+    static final class Naive implements MatMulKernel {
+        @Override
+        public String name() {
+            return "naive";
+        }
+
+        @Override
+        public void multiply(double[] a, int aOffset, int lda,
+                             double[] b, int bOffset, int ldb,
+                             double[] c, int cOffset, int ldc,
+                             int rowStart, int rowEnd, int depth, int cols) {
+            for (int i = rowStart; i < rowEnd; i++) {
+                for (int j = 0; j < cols; j++) {
+                    for (int k = 0; k < depth; k++) {
+                        c[cOffset + i * ldc + j] += a[aOffset + i * lda + k] * b[bOffset + k * ldb + j];
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * The i-k-j loop order. The inner loop walks a row of B and a row of C with unit stride.
+     */
+    static final class Ikj implements MatMulKernel {
+        @Override
+        public String name() {
+            return "ikj";
+        }
+
+        @Override
+        public void multiply(double[] a, int aOffset, int lda,
+                             double[] b, int bOffset, int ldb,
+                             double[] c, int cOffset, int ldc,
+                             int rowStart, int rowEnd, int depth, int cols) {
+            for (int i = rowStart; i < rowEnd; i++) {
+                final int cRow = cOffset + i * ldc;
+                final int aRow = aOffset + i * lda;
+
+                for (int k = 0; k < depth; k++) {
+                    final double aik = a[aRow + k];
+                    final int bRow = bOffset + k * ldb;
+
+                    for (int j = 0; j < cols; j++) {
+                        c[cRow + j] += aik * b[bRow + j];
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Transposes B first so that every element of C is the dot product of two contiguous rows.
+     * The transposed copy is private to each call, so the kernel can be shared between threads.
+     */
+    static final class TransposedB implements MatMulKernel {
+        @Override
+        public String name() {
+            return "transposed";
+        }
+
+        @Override
+        public void multiply(double[] a, int aOffset, int lda,
+                             double[] b, int bOffset, int ldb,
+                             double[] c, int cOffset, int ldc,
+                             int rowStart, int rowEnd, int depth, int cols) {
+            final double[] bt = new double[cols * depth];
+
+            for (int k = 0; k < depth; k++) {
+                for (int j = 0; j < cols; j++) {
+                    bt[j * depth + k] = b[bOffset + k * ldb + j];
+                }
+            }
+
+            for (int i = rowStart; i < rowEnd; i++) {
+                final int aRow = aOffset + i * lda;
+                final int cRow = cOffset + i * ldc;
+
+                for (int j = 0; j < cols; j++) {
+                    final int btRow = j * depth;
+                    double sum = 0.0;
+
+                    for (int k = 0; k < depth; k++) {
+                        sum += a[aRow + k] * bt[btRow + k];
+                    }
+
+                    c[cRow + j] += sum;
+                }
+            }
+        }
+    }
+
+    /**
+     * Cache-blocked kernel. The iteration space is split in tiles of {@code tileRows x tileDepth} elements of A and
+     * {@code tileDepth x tileCols} elements of B that stay in cache while they are reused. Inside a tile, a 2x4
+     * register tile of C is kept in local variables during the whole depth loop, so C is read and written once per
+     * tile instead of once per multiplication.
+     */
+    static final class Blocked implements MatMulKernel {
+        private final int tileRows;
+        private final int tileCols;
+        private final int tileDepth;
+
+        Blocked(int tileRows, int tileCols, int tileDepth) {
+            if (tileRows <= 0 || tileCols <= 0 || tileDepth <= 0) {
+                throw new IllegalArgumentException("Tile sizes must be positive");
+            }
+
+            this.tileRows = tileRows;
+            this.tileCols = tileCols;
+            this.tileDepth = tileDepth;
+        }
+
+        @Override
+        public String name() {
+            return "blocked";
+        }
+
+        @Override
+        public void multiply(double[] a, int aOffset, int lda,
+                             double[] b, int bOffset, int ldb,
+                             double[] c, int cOffset, int ldc,
+                             int rowStart, int rowEnd, int depth, int cols) {
+            for (int ii = rowStart; ii < rowEnd; ii += tileRows) {
+                final int iEnd = Math.min(ii + tileRows, rowEnd);
+
+                for (int kk = 0; kk < depth; kk += tileDepth) {
+                    final int kEnd = Math.min(kk + tileDepth, depth);
+
+                    for (int jj = 0; jj < cols; jj += tileCols) {
+                        final int jEnd = Math.min(jj + tileCols, cols);
+                        int i = ii;
+
+                        for (; i + 1 < iEnd; i += 2) {
+                            twoRows(a, aOffset + i * lda, lda, b, bOffset, ldb, c, cOffset + i * ldc, ldc,
+                                    kk, kEnd, jj, jEnd);
+                        }
+
+                        if (i < iEnd) {
+                            oneRow(a, aOffset + i * lda, b, bOffset, ldb, c, cOffset + i * ldc, kk, kEnd, jj, jEnd);
+                        }
+                    }
+                }
+            }
+        }
+
+        private static void twoRows(double[] a, int a0, int lda,
+                                    double[] b, int bOffset, int ldb,
+                                    double[] c, int c0, int ldc,
+                                    int kStart, int kEnd, int jStart, int jEnd) {
+            final int a1 = a0 + lda;
+            final int c1 = c0 + ldc;
+            int j = jStart;
+
+            for (; j + 3 < jEnd; j += 4) {
+                double c00 = c[c0 + j], c01 = c[c0 + j + 1], c02 = c[c0 + j + 2], c03 = c[c0 + j + 3];
+                double c10 = c[c1 + j], c11 = c[c1 + j + 1], c12 = c[c1 + j + 2], c13 = c[c1 + j + 3];
+
+                for (int k = kStart; k < kEnd; k++) {
+                    final int bk = bOffset + k * ldb + j;
+                    final double b0 = b[bk], b1 = b[bk + 1], b2 = b[bk + 2], b3 = b[bk + 3];
+                    final double x0 = a[a0 + k];
+                    final double x1 = a[a1 + k];
+
+                    c00 += x0 * b0;
+                    c01 += x0 * b1;
+                    c02 += x0 * b2;
+                    c03 += x0 * b3;
+                    c10 += x1 * b0;
+                    c11 += x1 * b1;
+                    c12 += x1 * b2;
+                    c13 += x1 * b3;
+                }
+
+                c[c0 + j] = c00;
+                c[c0 + j + 1] = c01;
+                c[c0 + j + 2] = c02;
+                c[c0 + j + 3] = c03;
+                c[c1 + j] = c10;
+                c[c1 + j + 1] = c11;
+                c[c1 + j + 2] = c12;
+                c[c1 + j + 3] = c13;
+            }
+
+            for (; j < jEnd; j++) {
+                double s0 = c[c0 + j];
+                double s1 = c[c1 + j];
+
+                for (int k = kStart; k < kEnd; k++) {
+                    final double bkj = b[bOffset + k * ldb + j];
+                    s0 += a[a0 + k] * bkj;
+                    s1 += a[a1 + k] * bkj;
+                }
+
+                c[c0 + j] = s0;
+                c[c1 + j] = s1;
+            }
+        }
+
+        private static void oneRow(double[] a, int a0,
+                                   double[] b, int bOffset, int ldb,
+                                   double[] c, int c0,
+                                   int kStart, int kEnd, int jStart, int jEnd) {
+            int j = jStart;
+
+            for (; j + 3 < jEnd; j += 4) {
+                double c00 = c[c0 + j], c01 = c[c0 + j + 1], c02 = c[c0 + j + 2], c03 = c[c0 + j + 3];
+
+                for (int k = kStart; k < kEnd; k++) {
+                    final int bk = bOffset + k * ldb + j;
+                    final double x0 = a[a0 + k];
+
+                    c00 += x0 * b[bk];
+                    c01 += x0 * b[bk + 1];
+                    c02 += x0 * b[bk + 2];
+                    c03 += x0 * b[bk + 3];
+                }
+
+                c[c0 + j] = c00;
+                c[c0 + j + 1] = c01;
+                c[c0 + j + 2] = c02;
+                c[c0 + j + 3] = c03;
+            }
+
+            for (; j < jEnd; j++) {
+                double s0 = c[c0 + j];
+
+                for (int k = kStart; k < kEnd; k++) {
+                    s0 += a[a0 + k] * b[bOffset + k * ldb + j];
+                }
+
+                c[c0 + j] = s0;
+            }
+        }
+    }
+}
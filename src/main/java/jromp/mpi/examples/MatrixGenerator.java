@@ -0,0 +1,123 @@
+package jromp.mpi.examples;
+
+import jromp.parallel.Parallel;
+
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic generator of random matrices that can be filled in pieces.
+ * <p>
+ * Every row of the matrix has its own {@link SplittableRandom} stream, seeded from the global seed and the row index,
+ * and the element {@code (i, j)} is the {@code j}-th value of the stream of row {@code i}. Any range of elements can
+ * therefore be generated independently (by any process or thread) and the result is bit-identical to generating the
+ * whole matrix sequentially with the same seed.
+ */
+public final class MatrixGenerator {
+    private final long seed;
+    private final int rowLength;
+
+    /**
+     * @param seed      the global seed.
+     * @param rowLength the number of elements of each row.
+     */
+    public MatrixGenerator(long seed, int rowLength) {
+        this.seed = seed;
+        this.rowLength = rowLength;
+    }
+
+    public long seed() {
+        return seed;
+    }
+
+    /**
+     * Writes the elements {@code [first, first + count)} of the matrix, in row-major order, to
+     * {@code target[offset, offset + count)}. The values are uniformly distributed in {@code [0, bound)}.
+     */
+    public void fillDoubles(DoubleBuffer target, int offset, long first, int count, double bound) {
+        long element = first;
+        int position = offset;
+        final int end = offset + count;
+
+        while (position < end) {
+            final int column = (int) (element % rowLength);
+            final int length = Math.min(rowLength - column, end - position);
+            final SplittableRandom random = rowStream(element / rowLength);
+
+            for (int j = 0; j < column; j++) {
+                random.nextDouble(bound);
+            }
+
+            for (int j = 0; j < length; j++) {
+                target.put(position + j, random.nextDouble(bound));
+            }
+
+            element += length;
+            position += length;
+        }
+    }
+
+    /**
+     * Writes the elements {@code [first, first + count)} of the matrix, in row-major order, to
+     * {@code target[offset, offset + count)}. The values are uniformly distributed in {@code [0, bound)}.
+     */
+    public void fillInts(IntBuffer target, int offset, long first, int count, int bound) {
+        long element = first;
+        int position = offset;
+        final int end = offset + count;
+
+        while (position < end) {
+            final int column = (int) (element % rowLength);
+            final int length = Math.min(rowLength - column, end - position);
+            final SplittableRandom random = rowStream(element / rowLength);
+
+            for (int j = 0; j < column; j++) {
+                random.nextInt(bound);
+            }
+
+            for (int j = 0; j < length; j++) {
+                target.put(position + j, random.nextInt(bound));
+            }
+
+            element += length;
+            position += length;
+        }
+    }
+
+    /**
+     * Same as {@link #fillDoubles(DoubleBuffer, int, long, int, double)}, splitting the range among JROMP threads.
+     */
+    public void parallelFillDoubles(DoubleBuffer target, int offset, long first, int count, double bound,
+                                    int numThreads) {
+        Parallel.withThreads(numThreads)
+                .parallelFor(0, count, false, (id, start, end, vars) -> {
+                    fillDoubles(target, offset + start, first + start, end - start, bound);
+                })
+                .join();
+    }
+
+    /**
+     * Same as {@link #fillInts(IntBuffer, int, long, int, int)}, splitting the range among JROMP threads.
+     */
+    public void parallelFillInts(IntBuffer target, int offset, long first, int count, int bound, int numThreads) {
+        Parallel.withThreads(numThreads)
+                .parallelFor(0, count, false, (id, start, end, vars) -> {
+                    fillInts(target, offset + start, first + start, end - start, bound);
+                })
+                .join();
+    }
+
+    private SplittableRandom rowStream(long row) {
+        return new SplittableRandom(mix(seed + row * 0x9E3779B97F4A7C15L));
+    }
+
+    /**
+     * The finalizer of SplitMix64, so that consecutive rows get unrelated seeds.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
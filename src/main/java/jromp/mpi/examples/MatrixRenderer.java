@@ -0,0 +1,173 @@
+package jromp.mpi.examples;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Prints integer matrices as text, one row per line and every value followed by a space.
+ * <p>
+ * The digits are written directly into a reusable byte buffer that is flushed through a channel when it fills up, so
+ * there is no formatter call or write per cell. Only a {@link Viewport} of the matrix is printed, optionally taking
+ * one of every {@code stride} rows and columns, so huge matrices can be inspected quickly.
+ */
+public final class MatrixRenderer {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Longest text of a cell: the sign, ten digits and the separator.
+     */
+    private static final int MAX_CELL_LENGTH = 12;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+
+    /**
+     * Rectangle of a matrix with {@code rows} rows and {@code cols} columns whose first element is
+     * {@code (firstRow, firstCol)}, of which one of every {@code stride} rows and columns is printed.
+     */
+    public record Viewport(int firstRow, int firstCol, int rows, int cols, int stride) {
+        public Viewport {
+            if (firstRow < 0 || firstCol < 0 || rows < 0 || cols < 0 || stride <= 0) {
+                throw new IllegalArgumentException("Invalid viewport: " + firstRow + ", " + firstCol + ", " + rows
+                                                           + ", " + cols + ", " + stride);
+            }
+        }
+
+        /**
+         * @return the whole square matrix of order {@code n}, with the smallest stride that prints at most
+         *         {@code maxCells} rows and columns.
+         */
+        public static Viewport fit(int n, int maxCells) {
+            return new Viewport(0, 0, n, n, Math.max(1, (n + maxCells - 1) / maxCells));
+        }
+
+        /**
+         * @return the viewport restricted to a square matrix of order {@code n}.
+         */
+        Viewport clip(int n) {
+            int row = Math.min(firstRow, n);
+            int col = Math.min(firstCol, n);
+
+            return new Viewport(row, col, Math.min(rows, n - row), Math.min(cols, n - col), stride);
+        }
+    }
+
+    public MatrixRenderer(WritableByteChannel channel) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    }
+
+    /**
+     * @return a renderer that writes to the standard output.
+     */
+    public static MatrixRenderer stdout() {
+        System.out.flush();
+        return new MatrixRenderer(Channels.newChannel(System.out));
+    }
+
+    /**
+     * Prints the viewport of a square matrix of order {@code n}, followed by an empty line.
+     */
+    public void renderMatrix(IntBuffer matrix, int n, Viewport viewport) throws IOException {
+        Viewport view = viewport.clip(n);
+
+        for (int i = view.firstRow(); i < view.firstRow() + view.rows(); i += view.stride()) {
+            for (int j = view.firstCol(); j < view.firstCol() + view.cols(); j += view.stride()) {
+                cell(matrix.get(i * n + j));
+            }
+
+            newLine();
+        }
+
+        newLine();
+        flush();
+    }
+
+    /**
+     * Prints the viewport of a square matrix of order {@code n} showing only the elements of the cross made of the
+     * columns {@code [v_i, v_j]} and the rows {@code [h_k, h_t]}. The elements outside the cross are printed as
+     * blanks; whether an element belongs to the cross is decided from the limits, so no copy of the matrix is made.
+     */
+    public void renderCross(IntBuffer matrix, int n, int v_i, int v_j, int h_k, int h_t, Viewport viewport)
+            throws IOException {
+        Viewport view = viewport.clip(n);
+
+        for (int i = view.firstRow(); i < view.firstRow() + view.rows(); i += view.stride()) {
+            final boolean middle = i >= h_k && i <= h_t;
+
+            for (int j = view.firstCol(); j < view.firstCol() + view.cols(); j += view.stride()) {
+                if (middle || (j >= v_i && j <= v_j)) {
+                    cell(matrix.get(i * n + j));
+                } else {
+                    blank();
+                }
+            }
+
+            newLine();
+        }
+
+        flush();
+    }
+
+    /**
+     * Writes the pending text to the channel.
+     */
+    public void flush() throws IOException {
+        buffer.flip();
+
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+
+        buffer.clear();
+    }
+
+    private void cell(int value) throws IOException {
+        ensureRemaining(MAX_CELL_LENGTH);
+
+        long magnitude = value;
+
+        if (magnitude < 0) {
+            buffer.put((byte) '-');
+            magnitude = -magnitude;
+        }
+
+        // Write the digits backwards after the current position, then move past them
+        final int start = buffer.position();
+        int end = start;
+
+        do {
+            end++;
+            magnitude /= 10;
+        } while (magnitude > 0);
+
+        magnitude = Math.abs((long) value);
+
+        for (int k = end - 1; k >= start; k--) {
+            buffer.put(k, (byte) ('0' + magnitude % 10));
+            magnitude /= 10;
+        }
+
+        buffer.position(end);
+        buffer.put((byte) ' ');
+    }
+
+    private void blank() throws IOException {
+        ensureRemaining(2);
+        buffer.put((byte) ' ').put((byte) ' ');
+    }
+
+    private void newLine() throws IOException {
+        ensureRemaining(1);
+        buffer.put((byte) '\n');
+    }
+
+    private void ensureRemaining(int length) throws IOException {
+        if (buffer.remaining() < length) {
+            flush();
+        }
+    }
+}
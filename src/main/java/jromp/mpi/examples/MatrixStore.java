@@ -0,0 +1,328 @@
+package jromp.mpi.examples;
+
+import mpi.Comm;
+import mpi.MPI;
+import mpi.MPIException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Matrix stored in a file and accessed through memory mappings, so it can be reused across runs without generating it
+ * again and can be larger than the Java heap.
+ * <p>
+ * The file starts with a header of {@value #HEADER_SIZE} bytes that holds a magic number, the format version, the
+ * byte order and type of the elements, the dimensions and the seed of the generator, followed by the elements in
+ * row-major order. A single mapping cannot be larger than 2 GB, so the elements are mapped in segments of whole rows
+ * of at most {@value #SEGMENT_BYTES} bytes, which are created the first time they are used.
+ * <p>
+ * The views returned by the store are direct buffers in the native byte order, so they can be passed to MPI (or
+ * copied to other buffers) without going through the heap.
+ */
+public final class MatrixStore implements AutoCloseable {
+    static final int MAGIC = 0x4A524D58;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 64;
+    static final long SEGMENT_BYTES = 1L << 30;
+
+    /**
+     * Type of the elements of a stored matrix.
+     */
+    public enum ElementType {
+        INT(Integer.BYTES),
+        DOUBLE(Double.BYTES);
+
+        private final int bytes;
+
+        ElementType(int bytes) {
+            this.bytes = bytes;
+        }
+
+        public int bytes() {
+            return bytes;
+        }
+    }
+
+    private final Path path;
+    private final FileChannel channel;
+    private final FileChannel.MapMode mode;
+    private final ElementType type;
+    private final int rows;
+    private final int cols;
+    private final long seed;
+    private final int rowsPerSegment;
+    private final MappedByteBuffer[] segments;
+
+    private MatrixStore(Path path, FileChannel channel, FileChannel.MapMode mode, ElementType type, int rows,
+                        int cols, long seed) {
+        this.path = path;
+        this.channel = channel;
+        this.mode = mode;
+        this.type = type;
+        this.rows = rows;
+        this.cols = cols;
+        this.seed = seed;
+        this.rowsPerSegment = (int) Math.max(1, Math.min(rows, SEGMENT_BYTES / ((long) cols * type.bytes())));
+        this.segments = new MappedByteBuffer[(rows + rowsPerSegment - 1) / rowsPerSegment];
+    }
+
+    /**
+     * Creates (or truncates) the file of a matrix and writes its header. The elements are left to be written through
+     * the views of the returned store.
+     */
+    public static MatrixStore create(Path path, ElementType type, int rows, int cols, long seed) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                                               StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+
+        header.putInt(MAGIC)
+              .putInt(VERSION)
+              .put((byte) (ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN ? 1 : 0))
+              .put((byte) type.ordinal())
+              .putInt(rows)
+              .putInt(cols)
+              .putLong(seed)
+              .flip();
+
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+
+        // Extend the file to its final size, so the segments can be mapped
+        channel.write(ByteBuffer.allocate(1), HEADER_SIZE + (long) rows * cols * type.bytes() - 1);
+
+        return new MatrixStore(path, channel, FileChannel.MapMode.READ_WRITE, type, rows, cols, seed);
+    }
+
+    /**
+     * Opens the file of a matrix and validates its header.
+     *
+     * @param writable whether the elements can be modified through the views of the store.
+     *
+     * @throws IOException if the file is not a stored matrix, its version is not supported or it was written with a
+     *                     different byte order.
+     */
+    public static MatrixStore open(Path path, boolean writable) throws IOException {
+        FileChannel channel = writable
+                              ? FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                              : FileChannel.open(path, StandardOpenOption.READ);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+
+        try {
+            while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+                // Keep reading until the header is complete or the file ends
+            }
+
+            header.flip();
+
+            if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC) {
+                throw new IOException(path + " is not a stored matrix");
+            }
+
+            int version = header.getInt();
+
+            if (version != VERSION) {
+                throw new IOException(path + " has version " + version + ", expected " + VERSION);
+            }
+
+            ByteOrder order = header.get() == 1 ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN;
+
+            if (order != ByteOrder.nativeOrder()) {
+                throw new IOException(path + " was written with " + order + " byte order");
+            }
+
+            ElementType type = ElementType.values()[header.get()];
+            int rows = header.getInt();
+            int cols = header.getInt();
+            long seed = header.getLong();
+
+            if (channel.size() < HEADER_SIZE + (long) rows * cols * type.bytes()) {
+                throw new IOException(path + " is truncated");
+            }
+
+            return new MatrixStore(path, channel, writable ? FileChannel.MapMode.READ_WRITE
+                                                           : FileChannel.MapMode.READ_ONLY,
+                                   type, rows, cols, seed);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return {@code true} if the file exists and holds a matrix with the given type and dimensions.
+     */
+    public static boolean matches(Path path, ElementType type, int rows, int cols) {
+        if (!Files.isRegularFile(path)) {
+            return false;
+        }
+
+        try (MatrixStore store = open(path, false)) {
+            return store.type == type && store.rows == rows && store.cols == cols;
+        } catch (IOException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Opens a square matrix of order {@code n} stored in the given file, generating it first if the file does not
+     * hold a matrix with the given type and dimensions. The processes of the communicator generate their share of
+     * the rows in parallel, each one writing it through its own mapping.
+     *
+     * @param seed  the seed used to generate the matrix. The seed of a reused matrix is the one of its header.
+     * @param bound the values are uniformly distributed in {@code [0, bound)}.
+     *
+     * @return a read-only store of the matrix, in every process.
+     */
+    public static MatrixStore openOrGenerate(Comm comm, Path path, ElementType type, int n, long seed, double bound,
+                                             int numThreads) throws IOException, MPIException {
+        final int rank = comm.getRank();
+        int[] reuse = new int[1];
+
+        if (rank == 0) {
+            if (matches(path, type, n, n)) {
+                reuse[0] = 1;
+            } else {
+                create(path, type, n, n, seed).close();
+            }
+        }
+
+        comm.bcast(reuse, 1, MPI.INT, 0);
+
+        if (reuse[0] == 0) {
+            final int[] rowCounts = Utils.blockSizes(n, comm.getSize());
+            final int[] firstRows = Utils.displacements(rowCounts);
+            final MatrixGenerator generator = new MatrixGenerator(seed, n);
+            final int blockRows = (int) Math.max(1, SEGMENT_BYTES / ((long) n * type.bytes()));
+
+            try (MatrixStore store = open(path, true)) {
+                for (int row = firstRows[rank]; row < firstRows[rank] + rowCounts[rank]; row += blockRows) {
+                    final long first = (long) row * n;
+                    final int count = Math.min(blockRows, firstRows[rank] + rowCounts[rank] - row) * n;
+
+                    if (type == ElementType.INT) {
+                        generator.parallelFillInts(store.ints(first, count), 0, first, count, (int) bound, numThreads);
+                    } else {
+                        generator.parallelFillDoubles(store.doubles(first, count), 0, first, count, bound,
+                                                      numThreads);
+                    }
+                }
+
+                store.force();
+            }
+
+            comm.barrier();
+        }
+
+        return open(path, false);
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    public ElementType type() {
+        return type;
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int cols() {
+        return cols;
+    }
+
+    /**
+     * @return the seed of the generator that produced the matrix.
+     */
+    public long seed() {
+        return seed;
+    }
+
+    /**
+     * @return a view of the elements {@code [first, first + count)} of an integer matrix, in row-major order.
+     */
+    public IntBuffer ints(long first, int count) throws IOException {
+        checkType(ElementType.INT);
+        return region(first, count).asIntBuffer();
+    }
+
+    /**
+     * @return a view of the elements {@code [first, first + count)} of a double matrix, in row-major order.
+     */
+    public DoubleBuffer doubles(long first, int count) throws IOException {
+        checkType(ElementType.DOUBLE);
+        return region(first, count).asDoubleBuffer();
+    }
+
+    /**
+     * Writes the changes made through the views of the store to the file.
+     */
+    public void force() {
+        for (MappedByteBuffer segment : segments) {
+            if (segment != null) {
+                segment.force();
+            }
+        }
+    }
+
+    /**
+     * Closes the file. The mappings stay valid until they are garbage collected.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * @return the bytes of the elements {@code [first, first + count)}. The bytes are a slice of a segment when the
+     *         range does not cross the end of a segment, and a mapping of their own otherwise.
+     */
+    private ByteBuffer region(long first, int count) throws IOException {
+        if (first < 0 || count < 0 || first + count > (long) rows * cols) {
+            throw new IndexOutOfBoundsException("Elements [" + first + ", " + (first + count) + ") out of the matrix");
+        }
+
+        final long segmentElements = (long) rowsPerSegment * cols;
+        final int index = (int) (first / segmentElements);
+        final long segmentFirst = index * segmentElements;
+        ByteBuffer bytes;
+
+        if (first + count <= segmentFirst + segmentElements) {
+            bytes = segment(index).slice((int) ((first - segmentFirst) * type.bytes()), count * type.bytes());
+        } else if ((long) count * type.bytes() <= Integer.MAX_VALUE) {
+            bytes = channel.map(mode, HEADER_SIZE + first * type.bytes(), (long) count * type.bytes());
+        } else {
+            throw new IllegalArgumentException("A region of " + count + " elements does not fit in a buffer");
+        }
+
+        return bytes.order(ByteOrder.nativeOrder());
+    }
+
+    private synchronized MappedByteBuffer segment(int index) throws IOException {
+        if (segments[index] == null) {
+            final long segmentBytes = (long) rowsPerSegment * cols * type.bytes();
+            final long start = index * segmentBytes;
+            final long length = Math.min(segmentBytes, (long) rows * cols * type.bytes() - start);
+
+            segments[index] = channel.map(mode, HEADER_SIZE + start, length);
+        }
+
+        return segments[index];
+    }
+
+    private void checkType(ElementType expected) {
+        if (type != expected) {
+            throw new IllegalStateException(path + " holds " + type + " elements, not " + expected);
+        }
+    }
+}
@@ -0,0 +1,677 @@
+package jromp.mpi.examples;
+
+import mpi.Comm;
+import mpi.Datatype;
+import mpi.MPI;
+import mpi.MPIException;
+import mpi.Op;
+import mpi.Prequest;
+import mpi.Request;
+import mpi.Status;
+import mpi.Win;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.IdentityHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import static jromp.mpi.examples.Utils.printf;
+
+/**
+ * Communicator that measures the operations it forwards, in the spirit of the MPI profiling interface (PMPI).
+ * <p>
+ * The examples call the operations of the communicator through this class, which has the same methods, so profiling
+ * does not change how they communicate. When profiling is enabled with {@code --profile}, every call is timed and its
+ * payload is counted per operation: the number of calls, the total time, a histogram of the latencies in power of two
+ * buckets of nanoseconds and the bytes moved, also split by peer. The counters are plain arrays allocated up front, so
+ * measuring a call does not allocate. Without {@code --profile} the calls are forwarded without measuring them.
+ * <p>
+ * The time of a non-blocking operation is the time to post it; the time until it completes is measured by
+ * {@link #waitFor}, {@link #waitAny} and {@link #waitAll}, so the waits of the examples must go through this class too.
+ * For collectives, the peer of the non-root processes is the root, and the payload is the data sent or received by the
+ * calling process. In the same way, the time of a {@code get} or {@code put} on a window is the time to issue it, and
+ * the transfer is completed by the fence or unlock that closes the epoch.
+ * <p>
+ * {@link #report()} reduces the counters of all the processes and prints them in the root process, or writes them as
+ * JSON to the file given with {@code --profile-json}. It is a collective operation.
+ */
+public final class ProfiledComm {
+    /**
+     * Number of latency buckets: bucket {@code b} counts the calls that took {@code [2^b, 2^(b+1))} nanoseconds, and
+     * the last one every slower call (more than about two seconds).
+     */
+    static final int HISTOGRAM_BUCKETS = 32;
+    private static final int NO_PEER = -1;
+
+    /**
+     * Operations of the communicator that are measured.
+     */
+    enum Operation {
+        SEND, RECV, ISEND, IRECV, SEND_RECV, START_SEND, START_RECV, WAIT,
+        BARRIER, BCAST, IBCAST, SCATTER, SCATTERV, ISCATTERV, GATHER, GATHERV, IGATHERV, ALL_GATHER, REDUCE, ALL_REDUCE,
+        GET, PUT, FENCE, LOCK, UNLOCK;
+
+        String label() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private static final int NUM_OPERATIONS = Operation.values().length;
+
+    private final Comm comm;
+    private final String name;
+    private final boolean enabled;
+    private final String json;
+    private final int rank;
+    private final int size;
+    private final long[] calls = new long[NUM_OPERATIONS];
+    private final long[] nanos = new long[NUM_OPERATIONS];
+    private final long[] bytes = new long[NUM_OPERATIONS];
+    private final long[][] histograms = new long[NUM_OPERATIONS][HISTOGRAM_BUCKETS];
+    private final long[][] peerBytes;
+    private final Map<Request, Persistent> persistent = new IdentityHashMap<>();
+
+    /**
+     * Operation, peer and payload of a persistent request, counted every time it is started.
+     */
+    private record Persistent(Operation operation, int peer, long bytes) {
+    }
+
+    /**
+     * Wraps a communicator, reading the {@code --profile} and {@code --profile-json} options.
+     */
+    public ProfiledComm(Comm comm, Arguments arguments) throws MPIException {
+        this(comm, arguments, null);
+    }
+
+    /**
+     * Wraps a communicator other than the world, whose report is printed under the given name, or written to the file
+     * of {@code --profile-json} with {@code -name} appended to its name.
+     */
+    public ProfiledComm(Comm comm, Arguments arguments, String name) throws MPIException {
+        final String json = arguments.getString("profile-json", null);
+
+        this.comm = comm;
+        this.name = name;
+        this.json = json == null || name == null ? json : json.replaceFirst("(\\.json)?$", "-" + name + "$1");
+        this.enabled = arguments.getBoolean("profile") || json != null;
+        this.rank = comm.getRank();
+        this.size = comm.getSize();
+        this.peerBytes = new long[NUM_OPERATIONS][enabled ? size : 0];
+    }
+
+    /**
+     * @return the wrapped communicator, for the operations that are not measured.
+     */
+    public Comm comm() {
+        return comm;
+    }
+
+    public int getRank() {
+        return rank;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void abort(int errorCode) throws MPIException {
+        comm.abort(errorCode);
+    }
+
+    public int pack(Object in, int count, Datatype type, byte[] out, int position) throws MPIException {
+        return comm.pack(in, count, type, out, position);
+    }
+
+    public int unpack(byte[] in, int position, Object out, int count, Datatype type) throws MPIException {
+        return comm.unpack(in, position, out, count, type);
+    }
+
+    // Point to point
+
+    public void send(Object buffer, int count, Datatype type, int dest, int tag) throws MPIException {
+        final long start = start();
+        comm.send(buffer, count, type, dest, tag);
+        record(Operation.SEND, dest, bytes(count, type), start);
+    }
+
+    public Status recv(Object buffer, int count, Datatype type, int source, int tag) throws MPIException {
+        final long start = start();
+        Status status = comm.recv(buffer, count, type, source, tag);
+
+        if (enabled) {
+            record(Operation.RECV, source == MPI.ANY_SOURCE ? status.getSource() : source,
+                   bytes(status.getCount(type), type), start);
+        }
+
+        return status;
+    }
+
+    public Request iSend(Buffer buffer, int count, Datatype type, int dest, int tag) throws MPIException {
+        final long start = start();
+        Request request = comm.iSend(buffer, count, type, dest, tag);
+        record(Operation.ISEND, dest, bytes(count, type), start);
+
+        return request;
+    }
+
+    public Request iRecv(Buffer buffer, int count, Datatype type, int source, int tag) throws MPIException {
+        final long start = start();
+        Request request = comm.iRecv(buffer, count, type, source, tag);
+        record(Operation.IRECV, source, bytes(count, type), start);
+
+        return request;
+    }
+
+    public Status sendRecv(Object sendBuffer, int sendCount, Datatype sendType, int dest, int sendTag,
+                           Object recvBuffer, int recvCount, Datatype recvType, int source, int recvTag)
+            throws MPIException {
+        final long start = start();
+        Status status = comm.sendRecv(sendBuffer, sendCount, sendType, dest, sendTag,
+                                      recvBuffer, recvCount, recvType, source, recvTag);
+
+        // The call counts the bytes sent and the bytes received, each with its peer
+        if (enabled) {
+            record(Operation.SEND_RECV, dest, bytes(sendCount, sendType), start);
+            countBytes(Operation.SEND_RECV, source == MPI.ANY_SOURCE ? status.getSource() : source,
+                       bytes(status.getCount(recvType), recvType));
+        }
+
+        return status;
+    }
+
+    /**
+     * Creates a persistent send, whose payload is counted every time it is started with {@link #start}.
+     */
+    public Prequest sendInit(Buffer buffer, int count, Datatype type, int dest, int tag) throws MPIException {
+        Prequest request = comm.sendInit(buffer, count, type, dest, tag);
+
+        if (enabled) {
+            addPersistent(request, new Persistent(Operation.START_SEND, dest, bytes(count, type)));
+        }
+
+        return request;
+    }
+
+    /**
+     * Creates a persistent receive, whose payload is counted every time it is started with {@link #start}.
+     */
+    public Prequest recvInit(Buffer buffer, int count, Datatype type, int source, int tag) throws MPIException {
+        Prequest request = comm.recvInit(buffer, count, type, source, tag);
+
+        if (enabled) {
+            addPersistent(request, new Persistent(Operation.START_RECV, source, bytes(count, type)));
+        }
+
+        return request;
+    }
+
+    public void start(Prequest request) throws MPIException {
+        final long start = start();
+        request.start();
+
+        if (enabled) {
+            Persistent info;
+
+            synchronized (this) {
+                info = persistent.get(request);
+            }
+
+            record(info.operation(), info.peer(), info.bytes(), start);
+        }
+    }
+
+    public void startAll(Prequest[] requests) throws MPIException {
+        for (Prequest request : requests) {
+            start(request);
+        }
+    }
+
+    /**
+     * Frees a persistent request created by this communicator.
+     */
+    public void free(Prequest request) throws MPIException {
+        synchronized (this) {
+            persistent.remove(request);
+        }
+
+        request.free();
+    }
+
+    /**
+     * Registers a persistent request. The requests are registered under the lock of the counters, as threads can share
+     * the communicator.
+     */
+    private synchronized void addPersistent(Request request, Persistent info) {
+        persistent.put(request, info);
+    }
+
+    // Completion
+
+    public void waitFor(Request request) throws MPIException {
+        final long start = start();
+        request.waitFor();
+        record(Operation.WAIT, NO_PEER, 0, start);
+    }
+
+    public int waitAny(Request[] requests) throws MPIException {
+        final long start = start();
+        int index = Request.waitAny(requests);
+        record(Operation.WAIT, NO_PEER, 0, start);
+
+        return index;
+    }
+
+    public void waitAll(Request[] requests) throws MPIException {
+        final long start = start();
+        Request.waitAll(requests);
+        record(Operation.WAIT, NO_PEER, 0, start);
+    }
+
+    // Collectives
+
+    public void barrier() throws MPIException {
+        final long start = start();
+        comm.barrier();
+        record(Operation.BARRIER, NO_PEER, 0, start);
+    }
+
+    public void bcast(Object buffer, int count, Datatype type, int root) throws MPIException {
+        final long start = start();
+        comm.bcast(buffer, count, type, root);
+        record(Operation.BCAST, rootPeer(root), bytes(count, type), start);
+    }
+
+    public Request iBcast(Buffer buffer, int count, Datatype type, int root) throws MPIException {
+        final long start = start();
+        Request request = comm.iBcast(buffer, count, type, root);
+        record(Operation.IBCAST, rootPeer(root), bytes(count, type), start);
+
+        return request;
+    }
+
+    public void scatter(Object sendBuffer, int sendCount, Datatype sendType,
+                        Object recvBuffer, int recvCount, Datatype recvType, int root) throws MPIException {
+        final long start = start();
+        comm.scatter(sendBuffer, sendCount, sendType, recvBuffer, recvCount, recvType, root);
+        record(Operation.SCATTER, rootPeer(root),
+               rank == root ? (long) size * bytes(sendCount, sendType) : bytes(recvCount, recvType), start);
+    }
+
+    public void scatterv(Object sendBuffer, int[] sendCounts, int[] displacements, Datatype sendType,
+                         Object recvBuffer, int recvCount, Datatype recvType, int root) throws MPIException {
+        final long start = start();
+        comm.scatterv(sendBuffer, sendCounts, displacements, sendType, recvBuffer, recvCount, recvType, root);
+        record(Operation.SCATTERV, rootPeer(root),
+               rank == root ? bytes(sendCounts, sendType) : bytes(recvCount, recvType), start);
+    }
+
+    /**
+     * Scatters in place, in the root process.
+     */
+    public void scatterv(Object buffer, int[] sendCounts, int[] displacements, Datatype type, int root)
+            throws MPIException {
+        final long start = start();
+        comm.scatterv(buffer, sendCounts, displacements, type, root);
+        record(Operation.SCATTERV, NO_PEER, bytes(sendCounts, type), start);
+    }
+
+    public Request iScatterv(Buffer sendBuffer, int[] sendCounts, int[] displacements, Datatype sendType,
+                             Buffer recvBuffer, int recvCount, Datatype recvType, int root) throws MPIException {
+        final long start = start();
+        Request request = comm.iScatterv(sendBuffer, sendCounts, displacements, sendType,
+                                         recvBuffer, recvCount, recvType, root);
+        record(Operation.ISCATTERV, rootPeer(root),
+               rank == root ? bytes(sendCounts, sendType) : bytes(recvCount, recvType), start);
+
+        return request;
+    }
+
+    public void gather(Object sendBuffer, int sendCount, Datatype sendType,
+                       Object recvBuffer, int recvCount, Datatype recvType, int root) throws MPIException {
+        final long start = start();
+        comm.gather(sendBuffer, sendCount, sendType, recvBuffer, recvCount, recvType, root);
+        record(Operation.GATHER, rootPeer(root),
+               rank == root ? (long) size * bytes(recvCount, recvType) : bytes(sendCount, sendType), start);
+    }
+
+    public void gatherv(Object sendBuffer, int sendCount, Datatype sendType,
+                        Object recvBuffer, int[] recvCounts, int[] displacements, Datatype recvType, int root)
+            throws MPIException {
+        final long start = start();
+        comm.gatherv(sendBuffer, sendCount, sendType, recvBuffer, recvCounts, displacements, recvType, root);
+        record(Operation.GATHERV, rootPeer(root),
+               rank == root ? bytes(recvCounts, recvType) : bytes(sendCount, sendType), start);
+    }
+
+    /**
+     * Gathers in place, in the root process.
+     */
+    public void gatherv(Object buffer, int[] recvCounts, int[] displacements, Datatype type, int root)
+            throws MPIException {
+        final long start = start();
+        comm.gatherv(buffer, recvCounts, displacements, type, root);
+        record(Operation.GATHERV, NO_PEER, bytes(recvCounts, type), start);
+    }
+
+    public Request iGatherv(Buffer sendBuffer, int sendCount, Datatype sendType,
+                            Buffer recvBuffer, int[] recvCounts, int[] displacements, Datatype recvType, int root)
+            throws MPIException {
+        final long start = start();
+        Request request = comm.iGatherv(sendBuffer, sendCount, sendType, recvBuffer, recvCounts, displacements,
+                                        recvType, root);
+        record(Operation.IGATHERV, rootPeer(root),
+               rank == root ? bytes(recvCounts, recvType) : bytes(sendCount, sendType), start);
+
+        return request;
+    }
+
+    public void allGather(Object sendBuffer, int sendCount, Datatype sendType,
+                          Object recvBuffer, int recvCount, Datatype recvType) throws MPIException {
+        final long start = start();
+        comm.allGather(sendBuffer, sendCount, sendType, recvBuffer, recvCount, recvType);
+        record(Operation.ALL_GATHER, NO_PEER, bytes(sendCount, sendType), start);
+    }
+
+    public void reduce(Object sendBuffer, Object recvBuffer, int count, Datatype type, Op op, int root)
+            throws MPIException {
+        final long start = start();
+        comm.reduce(sendBuffer, recvBuffer, count, type, op, root);
+        record(Operation.REDUCE, rootPeer(root), bytes(count, type), start);
+    }
+
+    public void allReduce(Object sendBuffer, Object recvBuffer, int count, Datatype type, Op op)
+            throws MPIException {
+        final long start = start();
+        comm.allReduce(sendBuffer, recvBuffer, count, type, op);
+        record(Operation.ALL_REDUCE, NO_PEER, bytes(count, type), start);
+    }
+
+    /**
+     * Reduces in place.
+     */
+    public void allReduce(Object buffer, int count, Datatype type, Op op) throws MPIException {
+        final long start = start();
+        comm.allReduce(buffer, count, type, op);
+        record(Operation.ALL_REDUCE, NO_PEER, bytes(count, type), start);
+    }
+
+    // One-sided
+
+    /**
+     * Creates a window of the communicator over a direct buffer. It is a collective operation.
+     *
+     * @param size     the number of elements of the buffer exposed by the calling process, which may be zero. The
+     *                 bindings convert it to bytes in an int, so the window cannot be larger than 2 GB.
+     * @param dispUnit the unit of the displacements of the window, in elements of the buffer.
+     */
+    public Win createWin(Buffer base, int size, int dispUnit) throws MPIException {
+        return new Win(base, size, dispUnit, MPI.INFO_NULL, comm);
+    }
+
+    public void get(Win win, Buffer origin, int count, Datatype type, int target, int displacement)
+            throws MPIException {
+        final long start = start();
+        win.get(origin, count, type, target, displacement, count, type);
+        record(Operation.GET, target, bytes(count, type), start);
+    }
+
+    public void put(Win win, Buffer origin, int count, Datatype type, int target, int displacement)
+            throws MPIException {
+        final long start = start();
+        win.put(origin, count, type, target, displacement, count, type);
+        record(Operation.PUT, target, bytes(count, type), start);
+    }
+
+    public void fence(Win win, int assertion) throws MPIException {
+        final long start = start();
+        win.fence(assertion);
+        record(Operation.FENCE, NO_PEER, 0, start);
+    }
+
+    public void lock(Win win, int lockType, int target, int assertion) throws MPIException {
+        final long start = start();
+        win.lock(lockType, target, assertion);
+        record(Operation.LOCK, target, 0, start);
+    }
+
+    public void unlock(Win win, int target) throws MPIException {
+        final long start = start();
+        win.unlock(target);
+        record(Operation.UNLOCK, target, 0, start);
+    }
+
+    /**
+     * Frees a window created by this communicator. It is a collective operation.
+     */
+    public void free(Win win) throws MPIException {
+        win.free();
+    }
+
+    // Report
+
+    /**
+     * Reduces the counters of all the processes and prints them in the root process: per operation, the calls, the
+     * time summed over the processes and the time of the slowest one, the mean and the approximate median and 99th
+     * percentile of the latency, and the bytes. Then the bytes exchanged between every pair of processes, and the
+     * range of the communication time per process. Does nothing if profiling is not enabled.
+     */
+    public void report() throws MPIException, IOException {
+        if (!enabled) {
+            return;
+        }
+
+        // Calls, time, bytes and histogram of every operation, summed over the processes
+        final int stride = 3 + HISTOGRAM_BUCKETS;
+        long[] local = new long[NUM_OPERATIONS * stride];
+        long[] totals = new long[local.length];
+        long[] maxNanos = new long[NUM_OPERATIONS];
+        long[] traffic = new long[size];
+        long[] allTraffic = new long[size * size];
+        long communication = 0;
+
+        for (int op = 0; op < NUM_OPERATIONS; op++) {
+            local[op * stride] = calls[op];
+            local[op * stride + 1] = nanos[op];
+            local[op * stride + 2] = bytes[op];
+            System.arraycopy(histograms[op], 0, local, op * stride + 3, HISTOGRAM_BUCKETS);
+            communication += nanos[op];
+
+            for (int peer = 0; peer < size; peer++) {
+                traffic[peer] += peerBytes[op][peer];
+            }
+        }
+
+        long[] communicationRange = { -communication, communication };
+
+        comm.reduce(local, totals, local.length, MPI.LONG, MPI.SUM, 0);
+        comm.reduce(nanos, maxNanos, NUM_OPERATIONS, MPI.LONG, MPI.MAX, 0);
+        comm.allReduce(communicationRange, 2, MPI.LONG, MPI.MAX);
+        comm.gather(traffic, size, MPI.LONG, allTraffic, size, MPI.LONG, 0);
+
+        if (rank != 0) {
+            return;
+        }
+
+        if (name != null && json == null) {
+            printf("Profile of the %s communicator\n", name);
+        }
+
+        if (json != null) {
+            writeJson(Path.of(json), stride, totals, maxNanos, allTraffic, communicationRange);
+            printf("Profile written to %s\n", json);
+            return;
+        }
+
+        printf("%-11s %10s %12s %12s %10s %10s %10s %14s\n", "Operation", "Calls", "Total(s)", "MaxRank(s)",
+               "Mean(us)", "P50(us)", "P99(us)", "Bytes");
+
+        for (Operation operation : Operation.values()) {
+            final int base = operation.ordinal() * stride;
+            final long operationCalls = totals[base];
+
+            if (operationCalls == 0) {
+                continue;
+            }
+
+            printf("%-11s %10d %12f %12f %10.1f %10.1f %10.1f %14d\n", operation.label(), operationCalls,
+                   totals[base + 1] / 1e9, maxNanos[operation.ordinal()] / 1e9,
+                   totals[base + 1] / 1e3 / operationCalls,
+                   percentile(totals, base + 3, operationCalls, 0.50) / 1e3,
+                   percentile(totals, base + 3, operationCalls, 0.99) / 1e3, totals[base + 2]);
+        }
+
+        printf("Communication time per process: min %f s, max %f s\n",
+               -communicationRange[0] / 1e9, communicationRange[1] / 1e9);
+
+        printf("Bytes exchanged (row: process, column: peer)\n%-6s", "");
+
+        for (int peer = 0; peer < size; peer++) {
+            printf(" %12d", peer);
+        }
+
+        printf("\n");
+
+        for (int r = 0; r < size; r++) {
+            printf("%-6d", r);
+
+            for (int peer = 0; peer < size; peer++) {
+                printf(" %12d", allTraffic[r * size + peer]);
+            }
+
+            printf("\n");
+        }
+    }
+
+    private void writeJson(Path path, int stride, long[] totals, long[] maxNanos, long[] allTraffic,
+                           long[] communicationRange) throws IOException {
+        StringBuilder sb = new StringBuilder();
+
+        sb.append("{\n  \"processes\": ").append(size).append(",\n");
+        sb.append("  \"communication_nanos\": { \"min\": ").append(-communicationRange[0])
+          .append(", \"max\": ").append(communicationRange[1]).append(" },\n");
+        sb.append("  \"operations\": {");
+
+        String separator = "\n";
+
+        for (Operation operation : Operation.values()) {
+            final int base = operation.ordinal() * stride;
+
+            if (totals[base] == 0) {
+                continue;
+            }
+
+            sb.append(separator).append("    \"").append(operation.label()).append("\": { ")
+              .append("\"calls\": ").append(totals[base])
+              .append(", \"total_nanos\": ").append(totals[base + 1])
+              .append(", \"max_rank_nanos\": ").append(maxNanos[operation.ordinal()])
+              .append(", \"bytes\": ").append(totals[base + 2])
+              .append(", \"histogram_log2_nanos\": [");
+
+            for (int b = 0; b < HISTOGRAM_BUCKETS; b++) {
+                sb.append(b == 0 ? "" : ", ").append(totals[base + 3 + b]);
+            }
+
+            sb.append("] }");
+            separator = ",\n";
+        }
+
+        sb.append("\n  },\n  \"peer_bytes\": [");
+
+        for (int r = 0; r < size; r++) {
+            sb.append(r == 0 ? "\n    [" : ",\n    [");
+
+            for (int peer = 0; peer < size; peer++) {
+                sb.append(peer == 0 ? "" : ", ").append(allTraffic[r * size + peer]);
+            }
+
+            sb.append("]");
+        }
+
+        sb.append("\n  ]\n}\n");
+        Files.writeString(path, sb);
+    }
+
+    /**
+     * @return the upper bound, in nanoseconds, of the histogram bucket that holds the given fraction of the calls.
+     */
+    private static double percentile(long[] histogram, int offset, long calls, double fraction) {
+        long accumulated = 0;
+
+        for (int b = 0; b < HISTOGRAM_BUCKETS; b++) {
+            accumulated += histogram[offset + b];
+
+            if (accumulated >= fraction * calls) {
+                return Math.pow(2, b + 1);
+            }
+        }
+
+        return Math.pow(2, HISTOGRAM_BUCKETS);
+    }
+
+    private long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Counts a call that started at {@code start}. It is synchronized so threads can share the communicator.
+     */
+    private void record(Operation operation, int peer, long payload, long start) {
+        if (!enabled) {
+            return;
+        }
+
+        final long elapsed = System.nanoTime() - start;
+        final int op = operation.ordinal();
+
+        synchronized (this) {
+            calls[op]++;
+            nanos[op] += elapsed;
+            histograms[op][bucket(elapsed)]++;
+            countBytes(operation, peer, payload);
+        }
+    }
+
+    /**
+     * Counts the payload in the bytes of the operation and, if there is a peer, in the bytes exchanged with it, so the
+     * traffic between processes agrees with the bytes per operation.
+     */
+    private synchronized void countBytes(Operation operation, int peer, long payload) {
+        final int op = operation.ordinal();
+
+        bytes[op] += payload;
+
+        if (peer >= 0 && peer < size) {
+            peerBytes[op][peer] += payload;
+        }
+    }
+
+    static int bucket(long elapsed) {
+        return Math.min(HISTOGRAM_BUCKETS - 1, 63 - Long.numberOfLeadingZeros(Math.max(1, elapsed)));
+    }
+
+    private int rootPeer(int root) {
+        return rank == root ? NO_PEER : root;
+    }
+
+    private long bytes(int count, Datatype type) throws MPIException {
+        return enabled ? (long) count * type.getSize() : 0;
+    }
+
+    private long bytes(int[] counts, Datatype type) throws MPIException {
+        if (!enabled) {
+            return 0;
+        }
+
+        long total = 0;
+
+        for (int count : counts) {
+            total += count;
+        }
+
+        return total * type.getSize();
+    }
+}
@@ -0,0 +1,232 @@
+package jromp.mpi.examples;
+
+import mpi.Datatype;
+import mpi.MPIException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cache of committed derived datatypes that select regions of a row-major matrix.
+ * <p>
+ * The regions are expressed with a few strided components instead of one block per row: a box is a single
+ * {@code vector}, a band of full rows is a {@code contiguous} block, and composite shapes (the cross of {@link Cross}
+ * or the halo around a box) are a {@code struct} of those components. MPI libraries move strided vectors much faster
+ * than long lists of indexed blocks, and the descriptions do not grow with the size of the matrix.
+ * <p>
+ * The displacements of a struct are bytes in an int, so every component must start in the first 2 GB of the matrix:
+ * the regions of a square matrix of ints are supported up to the order 23170, and larger ones are rejected.
+ * <p>
+ * The datatypes are cached by shape, so asking twice for the same region returns the same committed datatype. They
+ * must be released with {@link #freeAll()} before finalizing MPI.
+ */
+public final class RegionDatatypes {
+    /**
+     * Cache shared by the examples.
+     */
+    public static final RegionDatatypes SHARED = new RegionDatatypes();
+
+    private final Map<Shape, Datatype> cache = new HashMap<>();
+
+    private record Shape(String kind, Datatype base, List<Integer> parameters) {
+    }
+
+    /**
+     * @return the rows {@code [firstRow, firstRow + numRows)} of a matrix with {@code cols} columns.
+     */
+    public synchronized Datatype band(int cols, int firstRow, int numRows, Datatype base) throws MPIException {
+        Shape shape = new Shape("band", base, List.of(cols, firstRow, numRows));
+        Datatype type = cache.get(shape);
+
+        if (type == null) {
+            type = commit(new Component(Datatype.createContiguous(Math.multiplyExact(numRows, cols), base),
+                                         (long) firstRow * cols), base);
+            cache.put(shape, type);
+        }
+
+        return type;
+    }
+
+    /**
+     * @return the block of {@code numRows} by {@code numCols} elements whose first element is
+     *         {@code (firstRow, firstCol)}, in a matrix with {@code cols} columns.
+     */
+    public synchronized Datatype box(int cols, int firstRow, int numRows, int firstCol, int numCols, Datatype base)
+            throws MPIException {
+        Shape shape = new Shape("box", base, List.of(cols, firstRow, numRows, firstCol, numCols));
+        Datatype type = cache.get(shape);
+
+        if (type == null) {
+            type = commit(boxComponent(cols, firstRow, numRows, firstCol, numCols, base), base);
+            cache.put(shape, type);
+        }
+
+        return type;
+    }
+
+    /**
+     * @return the cross of a square matrix of order {@code n}, made of the columns {@code [v_i, v_j]} of every row
+     *         and the full rows {@code [h_k, h_t]}. The elements are selected in the same order as the flat indexed
+     *         datatype of {@link #indexedCross}: the rows of the upper arm, the middle band and the rows of the lower
+     *         arm.
+     */
+    public synchronized Datatype cross(int n, int v_i, int v_j, int h_k, int h_t, Datatype base)
+            throws MPIException {
+        Shape shape = new Shape("cross", base, List.of(n, v_i, v_j, h_k, h_t));
+        Datatype type = cache.get(shape);
+
+        if (type == null) {
+            final int width = v_j - v_i + 1;
+            List<Component> components = new ArrayList<>();
+
+            if (h_k > 0) {
+                components.add(boxComponent(n, 0, h_k, v_i, width, base));
+            }
+
+            components.add(new Component(Datatype.createContiguous(Math.multiplyExact(n, h_t - h_k + 1), base),
+                                             (long) h_k * n));
+
+            if (h_t + 1 < n) {
+                components.add(boxComponent(n, h_t + 1, n - h_t - 1, v_i, width, base));
+            }
+
+            type = commit(components, base);
+            cache.put(shape, type);
+        }
+
+        return type;
+    }
+
+    /**
+     * @return the ring of {@code width} elements around the box of {@code numRows} by {@code numCols} elements whose
+     *         first element is {@code (firstRow, firstCol)}, in a matrix with {@code cols} columns. The ring must lie
+     *         inside the matrix. The elements are selected in four parts: the top rows, the left columns, the right
+     *         columns and the bottom rows.
+     */
+    public synchronized Datatype halo(int cols, int firstRow, int numRows, int firstCol, int numCols, int width,
+                                      Datatype base) throws MPIException {
+        Shape shape = new Shape("halo", base, List.of(cols, firstRow, numRows, firstCol, numCols, width));
+        Datatype type = cache.get(shape);
+
+        if (type == null) {
+            final int outerCol = firstCol - width;
+            final int outerCols = numCols + 2 * width;
+
+            type = commit(List.of(boxComponent(cols, firstRow - width, width, outerCol, outerCols, base),
+                                  boxComponent(cols, firstRow, numRows, outerCol, width, base),
+                                  boxComponent(cols, firstRow, numRows, firstCol + numCols, width, base),
+                                  boxComponent(cols, firstRow + numRows, width, outerCol, outerCols, base)),
+                          base);
+            cache.put(shape, type);
+        }
+
+        return type;
+    }
+
+    /**
+     * Frees every cached datatype.
+     */
+    public synchronized void freeAll() throws MPIException {
+        for (Datatype type : cache.values()) {
+            type.free();
+        }
+
+        cache.clear();
+    }
+
+    /**
+     * Builds the cross of {@link #cross} as a flat indexed datatype with one block per row of the arms. The datatype
+     * is not cached and must be freed by the caller; it is kept as the reference of {@link DatatypeBenchmark}.
+     */
+    public static Datatype indexedCross(int n, int v_i, int v_j, int h_k, int h_t, Datatype base)
+            throws MPIException {
+        final int width = v_j - v_i + 1;
+        final int num_blocks = h_k + 1 + (n - h_t - 1);
+        int[] block_lengths = new int[num_blocks];
+        int[] displacements = new int[num_blocks];
+        int counter = 0;
+
+        // Upper block
+        for (int i = 0; i < h_k; i++) {
+            block_lengths[counter] = width;
+            displacements[counter] = i * n + v_i;
+            counter++;
+        }
+
+        // Middle block
+        block_lengths[counter] = n * (h_t - h_k + 1);
+        displacements[counter] = h_k * n;
+        counter++;
+
+        // Lower block
+        for (int i = h_t + 1; i < n; i++) {
+            block_lengths[counter] = width;
+            displacements[counter] = i * n + v_i;
+            counter++;
+        }
+
+        Datatype type = Datatype.createIndexed(block_lengths, displacements, base);
+        type.commit();
+
+        return type;
+    }
+
+    /**
+     * A derived datatype placed at a displacement, in elements, from the start of the matrix.
+     */
+    private record Component(Datatype type, long displacement) {
+    }
+
+    private static Component boxComponent(int cols, int firstRow, int numRows, int firstCol, int numCols,
+                                          Datatype base) throws MPIException {
+        return new Component(Datatype.createVector(numRows, numCols, cols, base), (long) firstRow * cols + firstCol);
+    }
+
+    private static Datatype commit(Component component, Datatype base) throws MPIException {
+        return commit(List.of(component), base);
+    }
+
+    /**
+     * Combines the components in a struct and commits it. The components are freed right away, since the struct
+     * keeps its own reference to them.
+     *
+     * @throws IllegalArgumentException if a component starts beyond the 2 GB that the displacements can address.
+     */
+    private static Datatype commit(List<Component> components, Datatype base) throws MPIException {
+        final int elementSize = base.getSize();
+        int[] blockLengths = new int[components.size()];
+        int[] displacements = new int[components.size()];
+        Datatype[] types = new Datatype[components.size()];
+
+        for (int i = 0; i < types.length; i++) {
+            types[i] = components.get(i).type();
+        }
+
+        for (int i = 0; i < types.length; i++) {
+            final long displacement = components.get(i).displacement() * elementSize;
+
+            if (displacement > Integer.MAX_VALUE) {
+                for (Datatype component : types) {
+                    component.free();
+                }
+
+                throw new IllegalArgumentException("A region starts " + displacement + " bytes into the matrix, "
+                                                   + "beyond the 2 GB that the displacements of a struct address");
+            }
+
+            blockLengths[i] = 1;
+            displacements[i] = (int) displacement;
+        }
+
+        Datatype type = Datatype.createStruct(blockLengths, displacements, types);
+        type.commit();
+
+        for (Datatype component : types) {
+            component.free();
+        }
+
+        return type;
+    }
+}
@@ -0,0 +1,193 @@
+package jromp.mpi.examples;
+
+import mpi.Comm;
+import mpi.MPI;
+import mpi.MPIException;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import static jromp.mpi.examples.Utils.printf;
+
+/**
+ * Timings of the measured iterations of an example, reduced across the processes of a communicator.
+ * <p>
+ * An example runs {@code --warmup} iterations that are not measured and then {@code --iterations} measured ones. After
+ * each measured iteration every process records the time it spent in each phase, and the root process keeps the
+ * minimum, median and maximum of every phase over all the processes. The imbalance between processes shows in the
+ * spread of those values, and the maximum is the time of the phase for the whole program.
+ * <p>
+ * The samples are appended to the CSV file given with {@code --csv}, one line per iteration and phase, along with the
+ * example, the number of processes and threads and the order of the matrix, so the files of many runs (see the sweep
+ * tasks of the build) can be concatenated to plot the speedup and the efficiency.
+ */
+public final class ScalingReport {
+    static final String CSV_HEADER = "example,processes,threads,n,iteration,phase,min,median,max";
+
+    private final Comm comm;
+    private final String example;
+    private final int n;
+    private final int numThreads;
+    private final int warmup;
+    private final int iterations;
+    private final String csv;
+    private final List<Sample> samples = new ArrayList<>();
+
+    /**
+     * Minimum, median and maximum over the processes of the time of a phase in an iteration.
+     */
+    record Sample(int iteration, String phase, double min, double median, double max) {
+    }
+
+    /**
+     * Reads the {@code --iterations}, {@code --warmup} and {@code --csv} options. By default a single iteration is
+     * measured without warmup.
+     */
+    public ScalingReport(Comm comm, String example, int n, int numThreads, Arguments arguments) {
+        this.comm = comm;
+        this.example = example;
+        this.n = n;
+        this.numThreads = numThreads;
+        this.warmup = arguments.getInt("warmup", 0);
+        this.iterations = arguments.getInt("iterations", 1);
+        this.csv = arguments.getString("csv", null);
+    }
+
+    /**
+     * @return the first iteration to run: the warmup iterations are numbered from {@code -warmup} to {@code -1}, and
+     *         the measured ones from {@code 0} to {@code iterations - 1}.
+     */
+    public int firstIteration() {
+        return -warmup;
+    }
+
+    public int iterations() {
+        return iterations;
+    }
+
+    /**
+     * @return whether the iteration is measured.
+     */
+    public boolean isMeasured(int iteration) {
+        return iteration >= 0;
+    }
+
+    /**
+     * Records the time of every phase of the calling process in an iteration. It is a collective operation of the
+     * communicator, and warmup iterations are ignored (in every process, so the calls still match).
+     *
+     * @param phases the names of the phases.
+     * @param times  the time of each phase in the calling process, in seconds.
+     */
+    public void record(int iteration, String[] phases, double[] times) throws MPIException {
+        if (!isMeasured(iteration)) {
+            return;
+        }
+
+        final int rank = comm.getRank();
+        final int size = comm.getSize();
+        double[] all = new double[phases.length * size];
+
+        comm.gather(times, phases.length, MPI.DOUBLE, all, phases.length, MPI.DOUBLE, 0);
+
+        if (rank == 0) {
+            add(iteration, phases, all, size);
+        }
+    }
+
+    /**
+     * Adds the samples of a measured iteration, from the times of every phase in all the processes.
+     *
+     * @param all the times gathered from the processes: those of process {@code r} are
+     *            {@code all[r * phases.length, (r + 1) * phases.length)}.
+     */
+    void add(int iteration, String[] phases, double[] all, int size) {
+        double[] phaseTimes = new double[size];
+
+        for (int p = 0; p < phases.length; p++) {
+            for (int r = 0; r < size; r++) {
+                phaseTimes[r] = all[r * phases.length + p];
+            }
+
+            Arrays.sort(phaseTimes);
+            samples.add(new Sample(iteration, phases[p], phaseTimes[0], median(phaseTimes), phaseTimes[size - 1]));
+        }
+    }
+
+    /**
+     * Prints, in the root process, the median over the measured iterations of the minimum, median and maximum of every
+     * phase, and appends all the samples to the CSV file if one was given.
+     */
+    public void report() throws MPIException, IOException {
+        if (comm.getRank() != 0 || samples.isEmpty()) {
+            return;
+        }
+
+        printf("Processes: %d, threads: %d, N: %d, warmup: %d, iterations: %d\n",
+               comm.getSize(), numThreads, n, warmup, iterations);
+        printf("%-12s %12s %12s %12s\n", "Phase", "Min(s)", "Median(s)", "Max(s)");
+
+        for (String phase : samples.stream().map(Sample::phase).distinct().toList()) {
+            double[] summary = summary(phase);
+
+            printf("%-12s %12f %12f %12f\n", phase, summary[0], summary[1], summary[2]);
+        }
+
+        if (csv != null) {
+            writeCsv(Path.of(csv), comm.getSize());
+        }
+    }
+
+    List<Sample> samples() {
+        return samples;
+    }
+
+    /**
+     * @return the median over the measured iterations of the minimum, median and maximum of the phase.
+     */
+    double[] summary(String phase) {
+        List<Sample> phaseSamples = samples.stream().filter(sample -> sample.phase().equals(phase)).toList();
+
+        return new double[] {
+                median(phaseSamples.stream().mapToDouble(Sample::min).sorted().toArray()),
+                median(phaseSamples.stream().mapToDouble(Sample::median).sorted().toArray()),
+                median(phaseSamples.stream().mapToDouble(Sample::max).sorted().toArray())
+        };
+    }
+
+    /**
+     * Appends the samples to the CSV file, writing the header first if the file is new or empty.
+     */
+    void writeCsv(Path path, int processes) throws IOException {
+        final boolean header = !Files.exists(path) || Files.size(path) == 0;
+
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(path, StandardOpenOption.CREATE,
+                                                                          StandardOpenOption.APPEND))) {
+            if (header) {
+                writer.println(CSV_HEADER);
+            }
+
+            for (Sample sample : samples) {
+                writer.println(String.format(Locale.ROOT, "%s,%d,%d,%d,%d,%s,%.9f,%.9f,%.9f",
+                                             example, processes, numThreads, n, sample.iteration(),
+                                             sample.phase(), sample.min(), sample.median(), sample.max()));
+            }
+        }
+    }
+
+    /**
+     * @return the median of sorted values.
+     */
+    static double median(double[] sorted) {
+        final int middle = sorted.length / 2;
+
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+    }
+}
@@ -0,0 +1,161 @@
+package jromp.mpi.examples;
+
+import mpi.Intracomm;
+import mpi.MPI;
+import mpi.MPIException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Processes of a communicator grouped by the shared-memory node they run on, and matrices shared by the processes of
+ * every node.
+ * <p>
+ * The node communicator is split with {@code MPI_COMM_TYPE_SHARED}, and the first process of every node (its leader)
+ * joins the leaders communicator. Data only has to cross the network between the leaders: the leader of every node
+ * writes it to a shared matrix and the other processes of the node read it in place, so the node holds one copy of it
+ * instead of one per process. The process 0 of the communicator is the leader of its node and the process 0 of the
+ * leaders.
+ * <p>
+ * The Java bindings can allocate a shared window, but they have no {@code MPI_Win_shared_query}, so a process could
+ * not find the memory of the others. A shared matrix is instead a {@link MatrixStore} in {@code /dev/shm}, a file
+ * system in memory, mapped by every process of the node: the same shared pages that a shared window maps. The file is
+ * removed as soon as every process has opened it, and the memory is freed when the mappings are collected.
+ */
+public final class SharedNode implements AutoCloseable {
+    static final Path SHARED_MEMORY = Path.of("/dev/shm");
+
+    private final Intracomm node;
+    private final ProfiledComm leaders;
+    private final int nodeIndex;
+    private final int numNodes;
+    private final String prefix;
+    private int allocations;
+
+    private SharedNode(Intracomm node, ProfiledComm leaders, int nodeIndex, int numNodes, String prefix) {
+        this.node = node;
+        this.leaders = leaders;
+        this.nodeIndex = nodeIndex;
+        this.numNodes = numNodes;
+        this.prefix = prefix;
+    }
+
+    /**
+     * Groups the processes of the communicator by node. It is a collective operation of the communicator. The
+     * operations of the leaders communicator are profiled with the {@code --profile} options, see {@link #report()}.
+     */
+    public static SharedNode split(Intracomm comm, Arguments arguments) throws MPIException {
+        final int rank = comm.getRank();
+        Intracomm node = comm.splitType(MPI.COMM_TYPE_SHARED, rank, MPI.INFO_NULL);
+        final boolean leader = node.getRank() == 0;
+        Intracomm leaders = comm.split(leader ? 0 : MPI.UNDEFINED, rank);
+
+        // Every node learns its index in the leaders communicator and the number of nodes
+        int[] layout = leader ? new int[] { leaders.getRank(), leaders.getSize() } : new int[2];
+        node.bcast(layout, 2, MPI.INT, 0);
+
+        // The files of concurrent runs on the same node must not collide
+        long[] run = { ProcessHandle.current().pid(), System.nanoTime() };
+        comm.bcast(run, 2, MPI.LONG, 0);
+
+        return new SharedNode(node, leader ? new ProfiledComm(leaders, arguments, "leaders") : null,
+                              layout[0], layout[1],
+                              "jromp-" + run[0] + "-" + Long.toHexString(run[1]) + "-" + layout[0] + "-");
+    }
+
+    /**
+     * @return the communicator of the processes of the node.
+     */
+    public Intracomm node() {
+        return node;
+    }
+
+    /**
+     * @return the communicator of the leaders of all the nodes, or {@code null} if the calling process is not a leader.
+     */
+    public ProfiledComm leaders() {
+        return leaders;
+    }
+
+    public boolean isLeader() {
+        return leaders != null;
+    }
+
+    public int nodeRank() throws MPIException {
+        return node.getRank();
+    }
+
+    public int nodeSize() throws MPIException {
+        return node.getSize();
+    }
+
+    /**
+     * @return the index of the node, which is the rank of its leader in the leaders communicator.
+     */
+    public int nodeIndex() {
+        return nodeIndex;
+    }
+
+    public int numNodes() {
+        return numNodes;
+    }
+
+    /**
+     * Waits until every process of the node arrives, so the others see what the leader wrote to a shared matrix.
+     */
+    public void barrier() throws MPIException {
+        node.barrier();
+    }
+
+    /**
+     * Allocates a matrix shared by the processes of the node. It is a collective operation of the node. The elements
+     * are zero, and only the leader can modify them through the views of the store. The views stay valid after the
+     * store is closed.
+     */
+    public MatrixStore allocate(MatrixStore.ElementType type, int rows, int cols) throws IOException, MPIException {
+        final Path path = SHARED_MEMORY.resolve(prefix + allocations++);
+        MatrixStore store = null;
+
+        if (isLeader()) {
+            store = MatrixStore.create(path, type, rows, cols, 0);
+        }
+
+        node.barrier();
+
+        if (!isLeader()) {
+            store = MatrixStore.open(path, false);
+        }
+
+        node.barrier();
+
+        // The file stays open, and can still be mapped, until the store is closed
+        if (isLeader()) {
+            Files.delete(path);
+        }
+
+        return store;
+    }
+
+    /**
+     * Prints the profile of the leaders communicator, the traffic between nodes. It must be called by every process of
+     * the communicator that was split, and does nothing if profiling is not enabled.
+     */
+    public void report() throws MPIException, IOException {
+        if (leaders != null) {
+            leaders.report();
+        }
+    }
+
+    /**
+     * Frees the node and leaders communicators.
+     */
+    @Override
+    public void close() throws MPIException {
+        if (leaders != null) {
+            leaders.comm().free();
+        }
+
+        node.free();
+    }
+}
@@ -0,0 +1,128 @@
+package jromp.mpi.examples;
+
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * Entry point of the SIMD kernels. Each method uses the Vector API implementation in {@link VectorKernels} when the
+ * {@code jdk.incubator.vector} module has been added to the JVM ({@code --add-modules jdk.incubator.vector}) and the
+ * platform provides vectors of more than one lane, and falls back to a scalar loop otherwise.
+ */
+public final class Simd {
+    /**
+     * Whether the vector implementations are used.
+     */
+    public static final boolean ENABLED = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()
+            && VectorKernels.isSupported();
+
+    /**
+     * Number of elements added with the plain (vector) sum before the partial result enters the compensated sum.
+     */
+    static final int COMPENSATION_BLOCK = 1024;
+
+    private Simd() {
+    }
+
+    /**
+     * @return the sum of the elements of the buffer in the range {@code [from, to)}.
+     */
+    public static double sum(DoubleBuffer buffer, int from, int to) {
+        if (ENABLED) {
+            return VectorKernels.sum(buffer, from, to);
+        }
+
+        double sum = 0.0;
+
+        for (int i = from; i < to; i++) {
+            sum += buffer.get(i);
+        }
+
+        return sum;
+    }
+
+    /**
+     * Adds the elements of the buffer in the range {@code [from, to)} to a compensated sum. The elements are summed
+     * in blocks of {@value #COMPENSATION_BLOCK} with {@link #sum(DoubleBuffer, int, int)} and the block sums are
+     * accumulated with compensation, so the error stays bounded by the block size instead of the range length.
+     */
+    public static void compensatedSum(DoubleBuffer buffer, int from, int to, KahanSum accumulator) {
+        if (ENABLED) {
+            VectorKernels.compensatedSum(buffer, from, to, accumulator);
+            return;
+        }
+
+        for (int offset = from; offset < to; offset += COMPENSATION_BLOCK) {
+            final int end = Math.min(offset + COMPENSATION_BLOCK, to);
+            double sum = 0.0;
+
+            for (int i = offset; i < end; i++) {
+                sum += buffer.get(i);
+            }
+
+            accumulator.add(sum);
+        }
+    }
+
+    /**
+     * Divides the elements of the buffer in the range {@code [from, to)} by the given divisor.
+     */
+    public static void divide(DoubleBuffer buffer, int from, int to, double divisor) {
+        if (ENABLED) {
+            VectorKernels.divide(buffer, from, to, divisor);
+            return;
+        }
+
+        for (int i = from; i < to; i++) {
+            buffer.put(i, buffer.get(i) / divisor);
+        }
+    }
+
+    /**
+     * @return the sum of the elements of the buffer in the range {@code [from, to)}, with the overflow semantics of
+     *         {@code int} arithmetic.
+     */
+    public static int sum(IntBuffer buffer, int from, int to) {
+        if (ENABLED) {
+            return VectorKernels.sum(buffer, from, to);
+        }
+
+        int sum = 0;
+
+        for (int i = from; i < to; i++) {
+            sum += buffer.get(i);
+        }
+
+        return sum;
+    }
+
+    /**
+     * @return the sum of the elements of the buffer in the range {@code [from, to)}, accumulated in a {@code long} so
+     *         it does not overflow.
+     */
+    public static long longSum(IntBuffer buffer, int from, int to) {
+        if (ENABLED) {
+            return VectorKernels.longSum(buffer, from, to);
+        }
+
+        long sum = 0;
+
+        for (int i = from; i < to; i++) {
+            sum += buffer.get(i);
+        }
+
+        return sum;
+    }
+
+    /**
+     * @param tile the tile sizes of the kernel.
+     *
+     * @return the vector matrix multiplication kernel, or the scalar blocked kernel if vectors are not available.
+     */
+    public static MatMulKernel matMulKernel(int[] tile) {
+        if (ENABLED) {
+            return new VectorKernels.VectorMatMul(tile[0], tile[1], tile[2]);
+        }
+
+        return new MatMulKernels.Blocked(tile[0], tile[1], tile[2]);
+    }
+}
@@ -0,0 +1,187 @@
+package jromp.mpi.examples;
+
+import jromp.parallel.Parallel;
+import mpi.CartComm;
+import mpi.MPI;
+import mpi.MPIException;
+
+import java.nio.DoubleBuffer;
+
+import static jromp.mpi.examples.Utils.printf;
+
+/**
+ * Distributed matrix multiplication with the SUMMA algorithm on a {@code q x q} Cartesian grid of processes.
+ * <p>
+ * Every process owns one block of A, B and C. In step {@code k}, the processes of grid column {@code k} broadcast
+ * their block of A along their grid row, the processes of grid row {@code k} broadcast their block of B along their
+ * grid column, and every process accumulates the product of both panels in its block of C with the JROMP threads.
+ * No process ever holds a whole matrix, so the memory per process is {@code O(N^2 / P)}.
+ * <p>
+ * The blocks are generated in place from the global indices, so the result can be verified without a root process.
+ */
+@SuppressWarnings("all")
+public class Summa {
+    private static final int N = 4000;
+    private static final int NUM_THREADS = 4;
+    private static final int ROW = 0;
+    private static final int COL = 1;
+
+    public static void main(String[] args) throws MPIException {
+        MPI.InitThread(args, MPI.THREAD_FUNNELED);
+
+        Arguments arguments = Arguments.parse(args);
+        final int n = arguments.getInt("n", N);
+        final int[] tile = arguments.getIntList("tile", MatMulKernels.DEFAULT_TILE);
+        final MatMulKernel kernel = MatMulKernels.byName(arguments.getString("kernel", "blocked"), tile);
+        final int numThreads = arguments.getInt("threads", NUM_THREADS);
+        final boolean verify = arguments.getBoolean("verify");
+
+        int rank = MPI.COMM_WORLD.getRank();
+        int size = MPI.COMM_WORLD.getSize();
+        final int q = (int) Math.round(Math.sqrt(size));
+
+        if (q * q != size) {
+            if (rank == 0) {
+                printf("SUMMA needs a square number of processes, got %d\n", size);
+            }
+
+            MPI.COMM_WORLD.abort(1);
+        }
+
+        // Arrange the processes in a q x q grid and create the row and column communicators.
+        // The rank of a process in its row (column) communicator is its column (row) coordinate.
+        CartComm grid = MPI.COMM_WORLD.createCart(new int[] { q, q }, new boolean[] { false, false }, true);
+        int[] coords = grid.getCoords(grid.getRank());
+        CartComm rowComm = grid.createSub(new boolean[] { false, true });
+        CartComm colComm = grid.createSub(new boolean[] { true, false });
+
+        final int[] blockSizes = Utils.blockSizes(n, q);
+        final int[] blockOffsets = Utils.displacements(blockSizes);
+        final int myRows = blockSizes[coords[ROW]];
+        final int myCols = blockSizes[coords[COL]];
+        final int maxBlock = blockSizes[0];
+
+        final BufferPool pool = BufferPool.SHARED;
+        DoubleMatrix localA = DoubleMatrix.allocate(pool, myRows, myCols);
+        DoubleMatrix localB = DoubleMatrix.allocate(pool, myRows, myCols);
+        DoubleMatrix localC = DoubleMatrix.allocate(pool, myRows, myCols);
+        DoubleBuffer panelA = pool.doubles(myRows * maxBlock);
+        DoubleBuffer panelB = pool.doubles(maxBlock * myCols);
+
+        localC.fill(0.0);
+
+        fillBlock(localA, true, blockOffsets[coords[ROW]], blockOffsets[coords[COL]], myRows, myCols, numThreads);
+        fillBlock(localB, false, blockOffsets[coords[ROW]], blockOffsets[coords[COL]], myRows, myCols, numThreads);
+
+        double communicationTime = 0.0;
+        double computationTime = 0.0;
+
+        MPI.COMM_WORLD.barrier();
+        double start_time = MPI.wtime();
+
+        for (int k = 0; k < q; k++) {
+            final int depth = blockSizes[k];
+            final DoubleMatrix a = coords[COL] == k ? localA : new DoubleMatrix(panelA, myRows, depth);
+            final DoubleMatrix b = coords[ROW] == k ? localB : new DoubleMatrix(panelB, depth, myCols);
+
+            double step_start = MPI.wtime();
+            rowComm.bcast(a.buffer(), myRows * depth, MPI.DOUBLE, k);
+            colComm.bcast(b.buffer(), depth * myCols, MPI.DOUBLE, k);
+            double step_received = MPI.wtime();
+
+            Parallel.withThreads(numThreads)
+                    .parallelFor(0, myRows, false, (id, start, end, vars) -> {
+                        kernel.multiply(a, b, localC, start, end);
+                    })
+                    .join();
+
+            double step_end = MPI.wtime();
+            communicationTime += step_received - step_start;
+            computationTime += step_end - step_received;
+        }
+
+        MPI.COMM_WORLD.barrier();
+        double end_time = MPI.wtime();
+
+        double[] maxTimes = new double[2];
+        MPI.COMM_WORLD.reduce(new double[] { communicationTime, computationTime }, maxTimes, 2, MPI.DOUBLE, MPI.MAX,
+                              0);
+
+        double[] maxError = new double[1];
+
+        if (verify) {
+            double[] error = { sampledError(localC, blockOffsets[coords[ROW]], blockOffsets[coords[COL]], myRows,
+                                            myCols, n) };
+            MPI.COMM_WORLD.reduce(error, maxError, 1, MPI.DOUBLE, MPI.MAX, 0);
+        }
+
+        if (rank == 0) {
+            double elapsed = end_time - start_time;
+            printf("Grid: %dx%d, N: %d, kernel: %s\n", q, q, n, kernel.name());
+            printf("Max communication time: %f\n", maxTimes[0]);
+            printf("Max computation time: %f\n", maxTimes[1]);
+            printf("Time: %f (%.2f GFLOP/s)\n", elapsed, 2.0 * n * n * (double) n / elapsed / 1e9);
+
+            if (verify) {
+                printf("Result max error: %e\n", maxError[0]);
+            }
+        }
+
+        rowComm.free();
+        colComm.free();
+        grid.free();
+        MPI.Finalize();
+    }
+
+    /**
+     * Value of the element {@code (i, j)} of A. The values are small integers, so every product and sum of the
+     * multiplication is exact and the result does not depend on the order of the operations.
+     */
+    static double elementA(int i, int j) {
+        return (i + 2 * j) % 7 - 3;
+    }
+
+    /**
+     * Value of the element {@code (i, j)} of B.
+     */
+    static double elementB(int i, int j) {
+        return (3 * i + j) % 5 - 2;
+    }
+
+    private static void fillBlock(DoubleMatrix block, boolean isA, int rowOffset, int colOffset, int rows, int cols,
+                                  int numThreads) {
+        Parallel.withThreads(numThreads)
+                .parallelFor(0, rows, false, (id, start, end, vars) -> {
+                    for (int i = start; i < end; i++) {
+                        for (int j = 0; j < cols; j++) {
+                            block.set(i, j, isA
+                                    ? elementA(rowOffset + i, colOffset + j)
+                                    : elementB(rowOffset + i, colOffset + j));
+                        }
+                    }
+                })
+                .join();
+    }
+
+    /**
+     * Recomputes the corners and the center of the local block of C from the definition of A and B.
+     *
+     * @return the maximum absolute difference between the recomputed elements and the local block.
+     */
+    private static double sampledError(DoubleMatrix localC, int rowOffset, int colOffset, int rows, int cols, int n) {
+        int[][] samples = { { 0, 0 }, { 0, cols - 1 }, { rows - 1, 0 }, { rows - 1, cols - 1 }, { rows / 2, cols / 2 } };
+        double error = 0.0;
+
+        for (int[] sample : samples) {
+            double expected = 0.0;
+
+            for (int k = 0; k < n; k++) {
+                expected += elementA(rowOffset + sample[0], k) * elementB(k, colOffset + sample[1]);
+            }
+
+            error = Math.max(error, Math.abs(expected - localC.get(sample[0], sample[1])));
+        }
+
+        return error;
+    }
+}
@@ -8,4 +8,60 @@ public class Utils {
     public static void printf(String format, Object... args) {
         System.out.print(String.format(format, args));
     }
+
+    /**
+     * Splits {@code total} items into {@code parts} contiguous blocks whose sizes differ by at most one.
+     * The first {@code total % parts} blocks receive the extra item.
+     *
+     * @param total the number of items to split.
+     * @param parts the number of blocks.
+     *
+     * @return the size of each block.
+     */
+    public static int[] blockSizes(int total, int parts) {
+        int[] sizes = new int[parts];
+        int base = total / parts;
+        int remainder = total % parts;
+
+        for (int i = 0; i < parts; i++) {
+            sizes[i] = base + (i < remainder ? 1 : 0);
+        }
+
+        return sizes;
+    }
+
+    /**
+     * Computes the displacements (exclusive prefix sums) of the given block sizes.
+     *
+     * @param sizes the size of each block.
+     *
+     * @return the offset at which each block starts.
+     */
+    public static int[] displacements(int[] sizes) {
+        int[] displacements = new int[sizes.length];
+
+        for (int i = 1; i < sizes.length; i++) {
+            displacements[i] = displacements[i - 1] + sizes[i - 1];
+        }
+
+        return displacements;
+    }
+
+    /**
+     * Multiplies every element of the array by the given factor.
+     *
+     * @param values the values to scale.
+     * @param factor the factor to apply.
+     *
+     * @return a new array with the scaled values.
+     */
+    public static int[] scale(int[] values, int factor) {
+        int[] scaled = new int[values.length];
+
+        for (int i = 0; i < values.length; i++) {
+            scaled[i] = values[i] * factor;
+        }
+
+        return scaled;
+    }
 }
@@ -0,0 +1,270 @@
+package jromp.mpi.examples;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * Implementations of the hot loops of the examples with the incubating Vector API.
+ * <p>
+ * This class must only be loaded through {@link Simd}, which checks that the {@code jdk.incubator.vector} module is
+ * present before touching it. The vector API can only load from arrays in Java 21 (the memory segment variants are
+ * still a preview feature), so direct buffers are processed in small chunks that are copied to a scratch array
+ * with the bulk (intrinsified) get and put methods.
+ */
+final class VectorKernels {
+    private static final VectorSpecies<Double> DOUBLE_SPECIES = DoubleVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INT_SPECIES = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Long> LONG_SPECIES = LongVector.SPECIES_PREFERRED;
+    static final int CHUNK = 1024;
+
+    private VectorKernels() {
+    }
+
+    /**
+     * @return {@code true} if the preferred species of the platform have more than one lane.
+     */
+    static boolean isSupported() {
+        return DOUBLE_SPECIES.length() > 1 && INT_SPECIES.length() > 1;
+    }
+
+    static double sum(double[] values, int from, int to) {
+        DoubleVector acc = DoubleVector.zero(DOUBLE_SPECIES);
+        int i = from;
+        final int upper = from + DOUBLE_SPECIES.loopBound(to - from);
+
+        for (; i < upper; i += DOUBLE_SPECIES.length()) {
+            acc = acc.add(DoubleVector.fromArray(DOUBLE_SPECIES, values, i));
+        }
+
+        double sum = acc.reduceLanes(VectorOperators.ADD);
+
+        for (; i < to; i++) {
+            sum += values[i];
+        }
+
+        return sum;
+    }
+
+    static double sum(DoubleBuffer buffer, int from, int to) {
+        final double[] chunk = new double[CHUNK];
+        double sum = 0.0;
+
+        for (int offset = from; offset < to; offset += CHUNK) {
+            final int length = Math.min(CHUNK, to - offset);
+            buffer.get(offset, chunk, 0, length);
+            sum += sum(chunk, 0, length);
+        }
+
+        return sum;
+    }
+
+    static void compensatedSum(DoubleBuffer buffer, int from, int to, KahanSum accumulator) {
+        final double[] chunk = new double[Simd.COMPENSATION_BLOCK];
+
+        for (int offset = from; offset < to; offset += chunk.length) {
+            final int length = Math.min(chunk.length, to - offset);
+            buffer.get(offset, chunk, 0, length);
+            accumulator.add(sum(chunk, 0, length));
+        }
+    }
+
+    static void divide(DoubleBuffer buffer, int from, int to, double divisor) {
+        final double[] chunk = new double[CHUNK];
+
+        for (int offset = from; offset < to; offset += CHUNK) {
+            final int length = Math.min(CHUNK, to - offset);
+            int i = 0;
+            final int upper = DOUBLE_SPECIES.loopBound(length);
+
+            buffer.get(offset, chunk, 0, length);
+
+            for (; i < upper; i += DOUBLE_SPECIES.length()) {
+                DoubleVector.fromArray(DOUBLE_SPECIES, chunk, i).div(divisor).intoArray(chunk, i);
+            }
+
+            for (; i < length; i++) {
+                chunk[i] /= divisor;
+            }
+
+            buffer.put(offset, chunk, 0, length);
+        }
+    }
+
+    static int sum(IntBuffer buffer, int from, int to) {
+        final int[] chunk = new int[CHUNK];
+        IntVector acc = IntVector.zero(INT_SPECIES);
+        int sum = 0;
+
+        for (int offset = from; offset < to; offset += CHUNK) {
+            final int length = Math.min(CHUNK, to - offset);
+            int i = 0;
+            final int upper = INT_SPECIES.loopBound(length);
+
+            buffer.get(offset, chunk, 0, length);
+
+            for (; i < upper; i += INT_SPECIES.length()) {
+                acc = acc.add(IntVector.fromArray(INT_SPECIES, chunk, i));
+            }
+
+            for (; i < length; i++) {
+                sum += chunk[i];
+            }
+        }
+
+        return sum + acc.reduceLanes(VectorOperators.ADD);
+    }
+
+    /**
+     * Widens every vector of integers into two vectors of longs (its lower and upper halves) before adding it, so the
+     * sum cannot overflow.
+     */
+    static long longSum(IntBuffer buffer, int from, int to) {
+        final int[] chunk = new int[CHUNK];
+        LongVector acc = LongVector.zero(LONG_SPECIES);
+        long sum = 0;
+
+        for (int offset = from; offset < to; offset += CHUNK) {
+            final int length = Math.min(CHUNK, to - offset);
+            int i = 0;
+            final int upper = INT_SPECIES.loopBound(length);
+
+            buffer.get(offset, chunk, 0, length);
+
+            for (; i < upper; i += INT_SPECIES.length()) {
+                final IntVector values = IntVector.fromArray(INT_SPECIES, chunk, i);
+                acc = acc.add(values.convertShape(VectorOperators.I2L, LONG_SPECIES, 0))
+                         .add(values.convertShape(VectorOperators.I2L, LONG_SPECIES, 1));
+            }
+
+            for (; i < length; i++) {
+                sum += chunk[i];
+            }
+        }
+
+        return sum + acc.reduceLanes(VectorOperators.ADD);
+    }
+
+    /**
+     * Cache-blocked kernel whose register tile is made of two rows and two vectors of C. Every step of the depth
+     * loop broadcasts one element of A and multiplies it with two vectors of B using fused multiply-adds.
+     */
+    static final class VectorMatMul implements MatMulKernel {
+        private final int tileRows;
+        private final int tileCols;
+        private final int tileDepth;
+
+        VectorMatMul(int tileRows, int tileCols, int tileDepth) {
+            if (tileRows <= 0 || tileCols <= 0 || tileDepth <= 0) {
+                throw new IllegalArgumentException("Tile sizes must be positive");
+            }
+
+            this.tileRows = tileRows;
+            this.tileCols = tileCols;
+            this.tileDepth = tileDepth;
+        }
+
+        @Override
+        public String name() {
+            return "vector";
+        }
+
+        @Override
+        public void multiply(double[] a, int aOffset, int lda,
+                             double[] b, int bOffset, int ldb,
+                             double[] c, int cOffset, int ldc,
+                             int rowStart, int rowEnd, int depth, int cols) {
+            for (int ii = rowStart; ii < rowEnd; ii += tileRows) {
+                final int iEnd = Math.min(ii + tileRows, rowEnd);
+
+                for (int kk = 0; kk < depth; kk += tileDepth) {
+                    final int kEnd = Math.min(kk + tileDepth, depth);
+
+                    for (int jj = 0; jj < cols; jj += tileCols) {
+                        final int jEnd = Math.min(jj + tileCols, cols);
+                        int i = ii;
+
+                        for (; i + 1 < iEnd; i += 2) {
+                            rows(a, aOffset + i * lda, aOffset + (i + 1) * lda, b, bOffset, ldb,
+                                 c, cOffset + i * ldc, cOffset + (i + 1) * ldc, kk, kEnd, jj, jEnd);
+                        }
+
+                        if (i < iEnd) {
+                            rows(a, aOffset + i * lda, -1, b, bOffset, ldb,
+                                 c, cOffset + i * ldc, -1, kk, kEnd, jj, jEnd);
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * Computes one or two rows of a tile. The second row is skipped when {@code a1} is negative.
+         */
+        private static void rows(double[] a, int a0, int a1,
+                                 double[] b, int bOffset, int ldb,
+                                 double[] c, int c0, int c1,
+                                 int kStart, int kEnd, int jStart, int jEnd) {
+            final int lanes = DOUBLE_SPECIES.length();
+            final boolean twoRows = a1 >= 0;
+            int j = jStart;
+
+            for (; j + 2 * lanes <= jEnd; j += 2 * lanes) {
+                DoubleVector c00 = DoubleVector.fromArray(DOUBLE_SPECIES, c, c0 + j);
+                DoubleVector c01 = DoubleVector.fromArray(DOUBLE_SPECIES, c, c0 + j + lanes);
+                DoubleVector c10 = twoRows ? DoubleVector.fromArray(DOUBLE_SPECIES, c, c1 + j) : c00;
+                DoubleVector c11 = twoRows ? DoubleVector.fromArray(DOUBLE_SPECIES, c, c1 + j + lanes) : c01;
+
+                for (int k = kStart; k < kEnd; k++) {
+                    final int bk = bOffset + k * ldb + j;
+                    final DoubleVector b0 = DoubleVector.fromArray(DOUBLE_SPECIES, b, bk);
+                    final DoubleVector b1 = DoubleVector.fromArray(DOUBLE_SPECIES, b, bk + lanes);
+                    final DoubleVector x0 = DoubleVector.broadcast(DOUBLE_SPECIES, a[a0 + k]);
+
+                    c00 = b0.fma(x0, c00);
+                    c01 = b1.fma(x0, c01);
+
+                    if (twoRows) {
+                        final DoubleVector x1 = DoubleVector.broadcast(DOUBLE_SPECIES, a[a1 + k]);
+                        c10 = b0.fma(x1, c10);
+                        c11 = b1.fma(x1, c11);
+                    }
+                }
+
+                c00.intoArray(c, c0 + j);
+                c01.intoArray(c, c0 + j + lanes);
+
+                if (twoRows) {
+                    c10.intoArray(c, c1 + j);
+                    c11.intoArray(c, c1 + j + lanes);
+                }
+            }
+
+            // Remaining columns
+            for (; j < jEnd; j++) {
+                double s0 = c[c0 + j];
+                double s1 = twoRows ? c[c1 + j] : 0.0;
+
+                for (int k = kStart; k < kEnd; k++) {
+                    final double bkj = b[bOffset + k * ldb + j];
+                    s0 = Math.fma(a[a0 + k], bkj, s0);
+
+                    if (twoRows) {
+                        s1 = Math.fma(a[a1 + k], bkj, s1);
+                    }
+                }
+
+                c[c0 + j] = s0;
+
+                if (twoRows) {
+                    c[c1 + j] = s1;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package jromp.mpi.examples;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static jromp.mpi.examples.BurroPlayer.HAND_SIZE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BurroPlayerTest {
+    @Test
+    void dealGivesEveryNumberToTheDeckHandSizeTimes() {
+        final SplittableRandom random = new SplittableRandom(3);
+
+        for (int players = 1; players <= 8; players++) {
+            int[] deck = new int[players * HAND_SIZE];
+            int[] numbersCount = new int[players];
+
+            BurroPlayer.deal(deck, players, random);
+
+            for (int card : deck) {
+                assertTrue(card >= 0 && card < players, "card " + card);
+                numbersCount[card]++;
+            }
+
+            for (int count : numbersCount) {
+                assertEquals(HAND_SIZE, count);
+            }
+        }
+    }
+
+    @Test
+    void handIsAViewOfTheArray() {
+        int[] hands = { 9, 9, 2, 2, 2, 1, 9 };
+        BurroPlayer player = new BurroPlayer(hands, 2, CardSelectionStrategy.SIMPLE, new SplittableRandom(1));
+
+        assertFalse(player.hasFullHand());
+        assertEquals(1, player.card(3));
+        assertEquals("2 2 2 1", player.handToString());
+
+        player.replaceCard(3, 2);
+
+        assertTrue(player.hasFullHand());
+        assertEquals(2, hands[5]);
+        assertEquals(9, hands[1]);
+        assertEquals(9, hands[6]);
+    }
+}
@@ -0,0 +1,212 @@
+package jromp.mpi.examples;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static jromp.mpi.examples.BurroPlayer.HAND_SIZE;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The simulator plays the games one at a time, and the batch engine of {@link Burro} plays them all at once, with a
+ * process per seat. Both must follow the same rules, so the same deals and the same random choices must lead to the
+ * same games. The batch engine is replayed here in a single thread: every process has its own hands and marks of the
+ * finished games, and the messages of the ring are arrays.
+ */
+class BurroSimulatorTest {
+    private static final int GAMES = 200;
+    private static final int PLAYERS = 5;
+    // Low enough for some games of the simple strategy to end in a draw
+    private static final int MAX_ROUNDS = 60;
+
+    @ParameterizedTest
+    @EnumSource(CardSelectionStrategy.class)
+    void simulatorPlaysTheGamesOfTheBatchEngine(CardSelectionStrategy strategy) {
+        int[][] decks = new int[GAMES][PLAYERS * HAND_SIZE];
+
+        for (int g = 0; g < GAMES; g++) {
+            BurroPlayer.deal(decks[g], PLAYERS, new SplittableRandom(g));
+        }
+
+        // The simulator
+        long[] simulatorWins = new long[PLAYERS];
+        int[] simulatorRounds = new int[GAMES];
+        int[][] simulatorHands = new int[GAMES][];
+        int[] positions = new int[PLAYERS];
+        int[] cards = new int[PLAYERS];
+
+        for (int g = 0; g < GAMES; g++) {
+            int[] deck = decks[g].clone();
+            BurroPlayer[] seats = new BurroPlayer[PLAYERS];
+
+            for (int p = 0; p < PLAYERS; p++) {
+                seats[p] = new BurroPlayer(deck, p * HAND_SIZE, strategy, random(g, p));
+            }
+
+            simulatorRounds[g] = BurroSimulator.play(seats, positions, cards, MAX_ROUNDS, simulatorWins);
+            simulatorHands[g] = deck;
+        }
+
+        // The batch engine
+        long[] batchWins = new long[PLAYERS];
+        int[] batchRounds = batch(strategy, decks, MAX_ROUNDS, batchWins, simulatorHands);
+
+        assertArrayEquals(simulatorRounds, batchRounds);
+        assertArrayEquals(simulatorWins, batchWins);
+
+        // Both outcomes happen, so the comparison covers them, and every finished game has one winner
+        int draws = (int) Arrays.stream(simulatorRounds).filter(round -> round < 0).count();
+
+        assertTrue(draws < GAMES, "every game is a draw");
+        assertEquals(GAMES - draws, Arrays.stream(simulatorWins).sum());
+        if (strategy == CardSelectionStrategy.SIMPLE) {
+            assertTrue(draws > 0, "no game is a draw");
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(CardSelectionStrategy.class)
+    void simultaneousFinishIsWonByTheLowestSeat(CardSelectionStrategy strategy) {
+        // Seats 1 and 3 are dealt full hands, so both complete them in the first round
+        int[][] decks = { { 0, 2, 4, 0, 1, 1, 1, 1, 2, 0, 4, 2, 3, 3, 3, 3, 4, 0, 2, 4 } };
+        BurroPlayer[] seats = new BurroPlayer[PLAYERS];
+        int[] deck = decks[0].clone();
+        long[] simulatorWins = new long[PLAYERS];
+        long[] batchWins = new long[PLAYERS];
+
+        for (int p = 0; p < PLAYERS; p++) {
+            seats[p] = new BurroPlayer(deck, p * HAND_SIZE, strategy, random(0, p));
+        }
+
+        assertEquals(0, BurroSimulator.play(seats, new int[PLAYERS], new int[PLAYERS], MAX_ROUNDS, simulatorWins));
+        assertArrayEquals(new int[] { 0 }, batch(strategy, decks, MAX_ROUNDS, batchWins, new int[][] { deck }));
+        assertArrayEquals(new long[] { 0, 1, 0, 0, 0 }, simulatorWins);
+        assertArrayEquals(simulatorWins, batchWins);
+    }
+
+    /**
+     * Plays the games with the rules of the batch engine, and checks that the final hands of every game are the
+     * expected ones.
+     *
+     * @return the round in which every game was won, or -1 if it was a draw.
+     */
+    private static int[] batch(CardSelectionStrategy strategy, int[][] decks, int maxRounds, long[] winsBySeat,
+                               int[][] expected) {
+        final int games = decks.length;
+        final int handsSize = games * HAND_SIZE;
+        final int words = (games + Long.SIZE - 1) / Long.SIZE;
+        int[][] hands = new int[PLAYERS][handsSize];
+        BurroPlayer[][] players = new BurroPlayer[PLAYERS][games];
+        long[][] finished = new long[PLAYERS][words];
+        long[][] completed = new long[PLAYERS][words];
+        int[][] selectedPositions = new int[PLAYERS][games];
+        int[][] sentCards = new int[PLAYERS][games];
+        int[] rounds = new int[games];
+        int active = games;
+        int round = 0;
+
+        Arrays.fill(rounds, -1);
+
+        for (int r = 0; r < PLAYERS; r++) {
+            for (int g = 0; g < games; g++) {
+                System.arraycopy(decks[g], r * HAND_SIZE, hands[r], g * HAND_SIZE, HAND_SIZE);
+                players[r][g] = new BurroPlayer(hands[r], g * HAND_SIZE, strategy, random(g, r));
+            }
+        }
+
+        while (active > 0 && round < maxRounds) {
+            for (int r = 0; r < PLAYERS; r++) {
+                for (int g = 0; g < games; g++) {
+                    if (!isFinished(finished[r], g) && players[r][g].hasFullHand()) {
+                        finished[r][g / Long.SIZE] |= 1L << g;
+                        completed[r][g / Long.SIZE] |= 1L << g;
+                    }
+                }
+            }
+
+            // The bitwise or of the marks of all the processes
+            long[] marks = new long[words];
+
+            for (int r = 0; r < PLAYERS; r++) {
+                for (int w = 0; w < words; w++) {
+                    marks[w] |= finished[r][w];
+                }
+            }
+
+            for (int r = 0; r < PLAYERS; r++) {
+                System.arraycopy(marks, 0, finished[r], 0, words);
+            }
+
+            for (int g = 0; g < games; g++) {
+                if (isFinished(marks, g) && rounds[g] < 0) {
+                    rounds[g] = round;
+                }
+            }
+
+            // Every process packs the selected cards of the active games
+            for (int r = 0; r < PLAYERS; r++) {
+                active = 0;
+
+                for (int g = 0; g < games; g++) {
+                    if (!isFinished(marks, g)) {
+                        selectedPositions[r][g] = players[r][g].selectCard();
+                        sentCards[r][active++] = players[r][g].card(selectedPositions[r][g]);
+                    }
+                }
+            }
+
+            if (active == 0) {
+                break;
+            }
+
+            // Every process unpacks the cards sent by the previous one
+            for (int r = 0; r < PLAYERS; r++) {
+                int[] receivedCards = sentCards[(r + PLAYERS - 1) % PLAYERS];
+
+                for (int g = 0, k = 0; g < games; g++) {
+                    if (!isFinished(marks, g)) {
+                        players[r][g].replaceCard(selectedPositions[r][g], receivedCards[k++]);
+                    }
+                }
+            }
+
+            round++;
+        }
+
+        // The lowest rank that completed its hand wins the game
+        for (int g = 0; g < games; g++) {
+            for (int r = 0; r < PLAYERS; r++) {
+                if (isFinished(completed[r], g)) {
+                    winsBySeat[r]++;
+                    break;
+                }
+            }
+        }
+
+        for (int g = 0; g < games; g++) {
+            for (int r = 0; r < PLAYERS; r++) {
+                for (int i = 0; i < HAND_SIZE; i++) {
+                    assertEquals(expected[g][r * HAND_SIZE + i], hands[r][g * HAND_SIZE + i],
+                                 "card " + i + " of seat " + r + " in game " + g);
+                }
+            }
+        }
+
+        return rounds;
+    }
+
+    private static boolean isFinished(long[] finished, int game) {
+        return (finished[game / Long.SIZE] & 1L << game) != 0;
+    }
+
+    /**
+     * @return the random generator of a seat in a game, the same for the simulator and the batch engine.
+     */
+    private static SplittableRandom random(int game, int seat) {
+        return new SplittableRandom(1_000L * game + seat);
+    }
+}
@@ -0,0 +1,69 @@
+package jromp.mpi.examples;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static jromp.mpi.examples.BurroPlayer.HAND_SIZE;
+import static jromp.mpi.examples.CardSelectionStrategy.SAME_CARD_SELECTION_LIMIT;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CardSelectionStrategyTest {
+    @Test
+    void simpleSelectsEveryPositionOfTheHand() {
+        final SplittableRandom random = new SplittableRandom(5);
+        int[] hands = { 7, 0, 1, 2, 3 };
+        boolean[] selected = new boolean[HAND_SIZE];
+
+        for (int i = 0; i < 1000; i++) {
+            int position = CardSelectionStrategy.SIMPLE.select(hands, 1, new CardSelectionStrategy.State(), random);
+
+            assertTrue(position >= 0 && position < HAND_SIZE, "position " + position);
+            selected[position] = true;
+        }
+
+        for (boolean value : selected) {
+            assertTrue(value);
+        }
+    }
+
+    @Test
+    void leastFrequentSelectsTheLeastFrequentCard() {
+        final CardSelectionStrategy strategy = CardSelectionStrategy.LEAST_FREQUENT;
+        final SplittableRandom random = new SplittableRandom(5);
+        int[] hands = { 3, 3, 0, 3, 0, 5, 0 };
+
+        // The hand at offset 2 is {0, 3, 0, 5}: 3 comes first among the cards that appear once
+        assertEquals(1, strategy.select(hands, 2, new CardSelectionStrategy.State(), random));
+        // The hand at offset 0 is {3, 3, 0, 3}
+        assertEquals(2, strategy.select(hands, 0, new CardSelectionStrategy.State(), random));
+    }
+
+    @Test
+    void leastFrequentPassesAnotherCardAfterTheLimit() {
+        final SplittableRandom random = new SplittableRandom(11);
+        CardSelectionStrategy.State state = new CardSelectionStrategy.State();
+        int[] hands = { 1, 1, 1, 2 };
+
+        for (int i = 1; i < SAME_CARD_SELECTION_LIMIT; i++) {
+            assertEquals(3, CardSelectionStrategy.LEAST_FREQUENT.select(hands, 0, state, random));
+        }
+
+        // The same card was selected SAME_CARD_SELECTION_LIMIT times in a row
+        assertNotEquals(2, hands[CardSelectionStrategy.LEAST_FREQUENT.select(hands, 0, state, random)]);
+        // The selected card changed, so the least frequent one is passed again
+        assertEquals(3, CardSelectionStrategy.LEAST_FREQUENT.select(hands, 0, state, random));
+    }
+
+    @Test
+    void byNameAcceptsTheNamesOfToString() {
+        for (CardSelectionStrategy strategy : CardSelectionStrategy.values()) {
+            assertSame(strategy, CardSelectionStrategy.byName(strategy.toString()));
+        }
+
+        assertSame(CardSelectionStrategy.LEAST_FREQUENT, CardSelectionStrategy.byName("least-frequent"));
+    }
+}
@@ -0,0 +1,43 @@
+package jromp.mpi.examples;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CrossTest {
+    @Test
+    void limitsAreStrictlyOrderedInsideTheMatrix() {
+        final Random random = new Random(13);
+
+        for (int n = 2; n < 40; n++) {
+            Cross.CrossLimits limits = Cross.generate_limits(n, random);
+
+            assertTrue(0 <= limits.v_i && limits.v_i < limits.v_j && limits.v_j < n);
+            assertTrue(0 <= limits.h_k && limits.h_k < limits.h_t && limits.h_t < n);
+        }
+    }
+
+    @Test
+    void crossElementsCountTheCellsOfTheCross() {
+        final Random random = new Random(17);
+
+        for (int n = 2; n < 40; n++) {
+            Cross.CrossLimits limits = Cross.generate_limits(n, random);
+            int cells = 0;
+
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    boolean row = limits.h_k <= i && i <= limits.h_t;
+                    boolean column = limits.v_i <= j && j <= limits.v_j;
+
+                    cells += row || column ? 1 : 0;
+                }
+            }
+
+            assertEquals(cells, Cross.cross_elements(n, limits));
+        }
+    }
+}
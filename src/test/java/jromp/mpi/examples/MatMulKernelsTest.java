@@ -0,0 +1,120 @@
+package jromp.mpi.examples;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Every kernel against the naive one, on random matrices that are not square, whose dimensions are not multiples of
+ * the tiles and that are stored with offsets and padded rows, so transposed or misplaced elements change the result.
+ */
+class MatMulKernelsTest {
+    private static final double TOLERANCE = 1e-9;
+    private static final int ROWS = 37;
+    private static final int DEPTH = 53;
+    private static final int COLS = 29;
+    private static final int PADDING = 7;
+    private static final int OFFSET = 11;
+
+    static Stream<MatMulKernel> kernels() {
+        // Small tiles, so the loops over the tiles and their remainders run
+        return Stream.concat(MatMulKernels.all(new int[] { 8, 16, 12 }).stream(),
+                             MatMulKernels.all(MatMulKernels.DEFAULT_TILE).stream());
+    }
+
+    @ParameterizedTest
+    @MethodSource("kernels")
+    void multipliesArraysWithOffsetsAndLeadingDimensions(MatMulKernel kernel) {
+        final Random random = new Random(42);
+        final int lda = DEPTH + PADDING;
+        final int ldb = COLS + PADDING;
+        final int ldc = COLS + PADDING + 2;
+        double[] a = randomArray(random, OFFSET + ROWS * lda);
+        double[] b = randomArray(random, OFFSET + DEPTH * ldb);
+        double[] expected = randomArray(random, OFFSET + ROWS * ldc);
+        double[] actual = expected.clone();
+
+        // Only a range of rows, and C is not zero, so the kernels must accumulate and leave the other rows alone
+        naive().multiply(a, OFFSET, lda, b, OFFSET, ldb, expected, OFFSET, ldc, 5, ROWS - 3, DEPTH, COLS);
+        kernel.multiply(a, OFFSET, lda, b, OFFSET, ldb, actual, OFFSET, ldc, 5, ROWS - 3, DEPTH, COLS);
+
+        assertArrayClose(expected, actual);
+    }
+
+    @ParameterizedTest
+    @MethodSource("kernels")
+    void multipliesBlocksOfDirectBuffers(MatMulKernel kernel) {
+        final Random random = new Random(7);
+        // Large enough for the packing panels of the buffer form to be split
+        final int rows = MatMulKernel.PACK_ROWS + 9;
+        final int depth = MatMulKernel.PACK_DEPTH + 13;
+        final int cols = MatMulKernel.PACK_COLS + 5;
+        DoubleMatrix a = randomMatrix(random, rows + 2, depth + 3).block(1, 2, rows, depth);
+        DoubleMatrix b = randomMatrix(random, depth + 1, cols + 4).block(1, 3, depth, cols);
+        DoubleMatrix expected = randomMatrix(random, rows, cols + 2).block(0, 1, rows, cols);
+        DoubleMatrix actual = copy(expected);
+
+        naive().multiply(a, b, expected, 0, rows);
+        kernel.multiply(a, b, actual, 0, rows);
+
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                assertEquals(expected.get(i, j), actual.get(i, j), TOLERANCE, "C(" + i + ", " + j + ")");
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("kernels")
+    void matchesTheNaiveKernelOfTheVerification(MatMulKernel kernel) {
+        assertEquals(0.0, MatMulKernels.maxError(kernel, 1234), TOLERANCE);
+    }
+
+    private static MatMulKernel naive() {
+        return MatMulKernels.byName("naive", MatMulKernels.DEFAULT_TILE);
+    }
+
+    private static double[] randomArray(Random random, int length) {
+        double[] values = new double[length];
+
+        for (int i = 0; i < length; i++) {
+            values[i] = random.nextDouble() - 0.5;
+        }
+
+        return values;
+    }
+
+    private static DoubleMatrix randomMatrix(Random random, int rows, int cols) {
+        DoubleBuffer buffer = ByteBuffer.allocateDirect(rows * cols * Double.BYTES)
+                                        .order(ByteOrder.nativeOrder())
+                                        .asDoubleBuffer();
+
+        buffer.put(randomArray(random, rows * cols)).clear();
+        return new DoubleMatrix(buffer, rows, cols);
+    }
+
+    /**
+     * @return a copy of the view, with the same offset and leading dimension, in a buffer of its own.
+     */
+    private static DoubleMatrix copy(DoubleMatrix matrix) {
+        DoubleBuffer buffer = ByteBuffer.allocateDirect(matrix.buffer().capacity() * Double.BYTES)
+                                        .order(ByteOrder.nativeOrder())
+                                        .asDoubleBuffer();
+
+        buffer.put(0, matrix.buffer(), 0, matrix.buffer().capacity());
+        return new DoubleMatrix(buffer, matrix.offset(), matrix.rows(), matrix.cols(), matrix.ld());
+    }
+
+    private static void assertArrayClose(double[] expected, double[] actual) {
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], actual[i], TOLERANCE, "element " + i);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package jromp.mpi.examples;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The aggregation and the CSV output of the report, which only the gather of {@link ScalingReport#record} ties to
+ * MPI: the tests add the gathered times directly.
+ */
+class ScalingReportTest {
+    private static final String[] PHASES = { "scatter", "sum" };
+
+    @Test
+    void medianOfAnOddNumberOfValuesIsTheMiddleOne() {
+        assertEquals(2.0, ScalingReport.median(new double[] { 2.0 }));
+        assertEquals(3.0, ScalingReport.median(new double[] { 1.0, 3.0, 10.0 }));
+    }
+
+    @Test
+    void medianOfAnEvenNumberOfValuesIsTheMeanOfTheMiddleOnes() {
+        assertEquals(2.0, ScalingReport.median(new double[] { 1.0, 3.0 }));
+        assertEquals(4.5, ScalingReport.median(new double[] { 1.0, 4.0, 5.0, 100.0 }));
+    }
+
+    @Test
+    void warmupIterationsAreNotMeasured() throws Exception {
+        ScalingReport report = report("--warmup=2", "--iterations=3");
+
+        assertEquals(-2, report.firstIteration());
+        assertEquals(3, report.iterations());
+        assertFalse(report.isMeasured(-1));
+        assertTrue(report.isMeasured(0));
+
+        // A warmup iteration returns before the gather, so it needs no communicator
+        report.record(-1, PHASES, new double[] { 1.0, 2.0 });
+
+        assertTrue(report.samples().isEmpty());
+    }
+
+    @Test
+    void samplesAreTheMinimumMedianAndMaximumOverTheProcesses() {
+        ScalingReport report = report();
+
+        // Three processes, with the times of both phases of each one in turn
+        report.add(0, PHASES, new double[] { 3.0, 0.5, 1.0, 0.7, 2.0, 0.1 }, 3);
+
+        assertEquals(List.of(new ScalingReport.Sample(0, "scatter", 1.0, 2.0, 3.0),
+                             new ScalingReport.Sample(0, "sum", 0.1, 0.5, 0.7)),
+                     report.samples());
+    }
+
+    @Test
+    void summaryIsTheMedianOverTheIterations() {
+        ScalingReport report = report();
+
+        report.add(0, PHASES, new double[] { 1.0, 10.0, 3.0, 30.0 }, 2);
+        report.add(1, PHASES, new double[] { 2.0, 20.0, 6.0, 60.0 }, 2);
+        report.add(2, PHASES, new double[] { 9.0, 90.0, 9.0, 90.0 }, 2);
+
+        assertArrayEquals(new double[] { 2.0, 4.0, 6.0 }, report.summary("scatter"));
+        assertArrayEquals(new double[] { 20.0, 40.0, 60.0 }, report.summary("sum"));
+    }
+
+    @Test
+    void csvRowsAreAppendedAfterASingleHeader(@TempDir Path directory) throws IOException {
+        final Path csv = directory.resolve("scaling.csv");
+        ScalingReport report = report();
+
+        report.add(0, PHASES, new double[] { 0.25, 0.5 }, 1);
+        report.writeCsv(csv, 1);
+        report.writeCsv(csv, 1);
+
+        assertEquals(List.of(ScalingReport.CSV_HEADER,
+                             "Blocking,1,2,1000,0,scatter,0.250000000,0.250000000,0.250000000",
+                             "Blocking,1,2,1000,0,sum,0.500000000,0.500000000,0.500000000",
+                             "Blocking,1,2,1000,0,scatter,0.250000000,0.250000000,0.250000000",
+                             "Blocking,1,2,1000,0,sum,0.500000000,0.500000000,0.500000000"),
+                     Files.readAllLines(csv));
+    }
+
+    private static ScalingReport report(String... args) {
+        return new ScalingReport(null, "Blocking", 1000, 2, Arguments.parse(args));
+    }
+}
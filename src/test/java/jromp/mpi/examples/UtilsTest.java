@@ -0,0 +1,48 @@
+package jromp.mpi.examples;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UtilsTest {
+    @Test
+    void blockSizesGiveTheRemainderToTheFirstBlocks() {
+        assertArrayEquals(new int[] { 3, 3, 2, 2 }, Utils.blockSizes(10, 4));
+        assertArrayEquals(new int[] { 5, 5 }, Utils.blockSizes(10, 2));
+        assertArrayEquals(new int[] { 1, 1, 0, 0, 0 }, Utils.blockSizes(2, 5));
+    }
+
+    @Test
+    void blockSizesCoverTheTotalAndDifferByAtMostOne() {
+        for (int total = 0; total < 50; total++) {
+            for (int parts = 1; parts < 12; parts++) {
+                int[] sizes = Utils.blockSizes(total, parts);
+                int min = Arrays.stream(sizes).min().orElseThrow();
+                int max = Arrays.stream(sizes).max().orElseThrow();
+
+                assertEquals(parts, sizes.length);
+                assertEquals(total, Arrays.stream(sizes).sum());
+                assertTrue(max - min <= 1, () -> Arrays.toString(sizes));
+            }
+        }
+    }
+
+    @Test
+    void displacementsAreTheExclusivePrefixSums() {
+        assertArrayEquals(new int[] { 0, 3, 6, 8 }, Utils.displacements(new int[] { 3, 3, 2, 2 }));
+        assertArrayEquals(new int[] { 0, 0, 4 }, Utils.displacements(new int[] { 0, 4, 1 }));
+        assertArrayEquals(new int[0], Utils.displacements(new int[0]));
+    }
+
+    @Test
+    void scaleReturnsANewArray() {
+        int[] values = { 1, 0, 7 };
+
+        assertArrayEquals(new int[] { 3, 0, 21 }, Utils.scale(values, 3));
+        assertArrayEquals(new int[] { 1, 0, 7 }, values);
+    }
+}